@@ -0,0 +1,53 @@
+#!/bin/bash
+#
+# Measures the time to first response: from starting the JVM until the first request has been answered, including the
+# creation of the SDK clients the request needs. Prints one line per run, the phases reported by
+# /api/startup/stats and the median.
+#
+# Usage: startup-benchmark.sh [runs] [path]
+#
+#   JAVA_CMD  command starting the application, default: java -jar awsmock-spring-test-0.0.1-SNAPSHOT.jar
+#   PORT      server port, default: 10100
+#
+# Examples:
+#   ./startup-benchmark.sh 10
+#   ./startup-benchmark.sh 10 /api/sqs/queueUrlCache
+#   JAVA_CMD="java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar application.jar" ./startup-benchmark.sh 10
+#
+RUNS=${1:-5}
+REQUEST_PATH=${2:-/api/sqs/queueUrlCache}
+JAVA_CMD=${JAVA_CMD:-java -jar awsmock-spring-test-0.0.1-SNAPSHOT.jar}
+PORT=${PORT:-10100}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+field() {
+  sed -n "s/.*\"$1\":\([^,}]*\).*/\1/p" <<< "$2"
+}
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+  start=$(date +%s%3N)
+  $JAVA_CMD --server.port="$PORT" > startup-benchmark.log 2>&1 &
+  pid=$!
+
+  deadline=$((start + TIMEOUT_SECONDS * 1000))
+  until curl -sf -o /dev/null -H "Content-Type: application/json" "http://localhost:$PORT$REQUEST_PATH"; do
+    if [ "$(date +%s%3N)" -gt "$deadline" ] || ! kill -0 $pid 2> /dev/null; then
+      echo "Application did not answer within ${TIMEOUT_SECONDS}s, see startup-benchmark.log"
+      kill $pid 2> /dev/null
+      exit 1
+    fi
+    sleep 0.02
+  done
+  firstResponse=$(($(date +%s%3N) - start))
+
+  stats=$(curl -s -H "Content-Type: application/json" "http://localhost:$PORT/api/startup/stats")
+  kill $pid
+  wait $pid 2> /dev/null
+
+  results+=("$firstResponse")
+  echo "run: $run, firstResponseMs: $firstResponse, readyMs: $(field readyMs "$stats"), firstRequestMs: $(field firstRequestMs "$stats"), loadedClassesAtReady: $(field loadedClassesAtReady "$stats"), aot: $(field aot "$stats"), sharedArchiveFile: $(field sharedArchiveFile "$stats")"
+done
+
+median=$(printf '%s\n' "${results[@]}" | sort -n | sed -n "$(((RUNS + 1) / 2))p")
+echo "runs: $RUNS, path: $REQUEST_PATH, median firstResponseMs: $median"
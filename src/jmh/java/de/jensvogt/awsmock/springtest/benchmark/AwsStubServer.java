@@ -0,0 +1,216 @@
+package de.jensvogt.awsmock.springtest.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process HTTP server answering the SQS, SNS, S3, DynamoDB and Cognito operations used by the benchmarks with canned
+ * responses. It does just enough for the SDK to accept the responses: SQS MD5 digests are computed from the sent body
+ * and S3 ETags from the (aws-chunked decoded) object content. A long-poll delay holds every ReceiveMessage with a wait
+ * time for that long before answering, like a queue that has no messages yet.
+ */
+public class AwsStubServer implements AutoCloseable {
+
+    static final String QUEUE_PATH = "/000000000000/benchmark-queue";
+    static final String RECEIVED_BODY = "{\"testKey\":\"benchmark\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final Duration longPollDelay;
+
+    public AwsStubServer() throws IOException {
+        this(Duration.ZERO);
+    }
+
+    public AwsStubServer(Duration longPollDelay) throws IOException {
+        this.longPollDelay = longPollDelay;
+        // Headers and body are written separately, without TCP_NODELAY every response waits for the delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String endpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public String queueUrl() {
+        return endpoint() + QUEUE_PATH;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String target = exchange.getRequestHeaders().getFirst("X-Amz-Target");
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            if (target != null) {
+                handleJson(exchange, target, body);
+            } else if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+                handleQuery(exchange, new String(body, StandardCharsets.UTF_8));
+            } else {
+                handleS3(exchange, body);
+            }
+        } catch (RuntimeException ex) {
+            exchange.sendResponseHeaders(500, -1);
+        }
+    }
+
+    private void handleJson(HttpExchange exchange, String target, byte[] body) throws IOException {
+        JsonNode request = objectMapper.readTree(body);
+        ObjectNode response = objectMapper.createObjectNode();
+        switch (target) {
+            case "AmazonSQS.SendMessage" -> response
+                    .put("MessageId", UUID.randomUUID().toString())
+                    .put("MD5OfMessageBody", md5(request.path("MessageBody").asText().getBytes(StandardCharsets.UTF_8)));
+            case "AmazonSQS.ReceiveMessage" -> {
+                if (request.path("WaitTimeSeconds").asInt() > 0) {
+                    longPoll();
+                }
+                response.putArray("Messages").addObject()
+                        .put("MessageId", UUID.randomUUID().toString())
+                        .put("ReceiptHandle", UUID.randomUUID().toString())
+                        .put("MD5OfBody", md5(RECEIVED_BODY.getBytes(StandardCharsets.UTF_8)))
+                        .put("Body", RECEIVED_BODY);
+            }
+            case "AmazonSQS.GetQueueUrl" -> response.put("QueueUrl", queueUrl());
+            case "DynamoDB_20120810.GetItem" -> response.putObject("Item").putObject("orgaNr").put("N", "1");
+            case "AWSCognitoIdentityProviderService.InitiateAuth", "AWSCognitoIdentityProviderService.AdminInitiateAuth" -> response.putObject("AuthenticationResult")
+                    .put("AccessToken", UUID.randomUUID().toString())
+                    .put("IdToken", UUID.randomUUID().toString())
+                    .put("RefreshToken", UUID.randomUUID().toString())
+                    .put("TokenType", "Bearer")
+                    .put("ExpiresIn", 3600);
+            default -> {
+                // PutItem, DeleteMessage and friends return an empty object
+            }
+        }
+        send(exchange, 200, "application/x-amz-json-1.0", objectMapper.writeValueAsBytes(response));
+    }
+
+    private void longPoll() {
+        try {
+            Thread.sleep(longPollDelay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleQuery(HttpExchange exchange, String body) throws IOException {
+        String action = "";
+        String name = "";
+        for (String pair : body.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            String value = keyValue.length > 1 ? URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8) : "";
+            if (keyValue[0].equals("Action")) {
+                action = value;
+            } else if (keyValue[0].equals("Name")) {
+                name = value;
+            }
+        }
+        String result = action.equals("CreateTopic")
+                ? "<CreateTopicResult><TopicArn>arn:aws:sns:eu-central-1:000000000000:" + name + "</TopicArn></CreateTopicResult>"
+                : "";
+        String xml = "<" + action + "Response xmlns=\"http://sns.amazonaws.com/doc/2010-03-31/\">" + result
+                + "<ResponseMetadata><RequestId>" + UUID.randomUUID() + "</RequestId></ResponseMetadata></" + action + "Response>";
+        send(exchange, 200, "text/xml", xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void handleS3(HttpExchange exchange, byte[] body) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        switch (exchange.getRequestMethod()) {
+            case "PUT" -> {
+                String sha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+                byte[] content = sha256 != null && sha256.startsWith("STREAMING-") ? decodeAwsChunked(body) : body;
+                objects.put(path, content);
+                exchange.getResponseHeaders().add("ETag", "\"" + md5(content) + "\"");
+                send(exchange, 200, null, new byte[0]);
+            }
+            case "GET" -> {
+                byte[] content = objects.get(path);
+                if (content == null) {
+                    send(exchange, 404, "application/xml", "<Error><Code>NoSuchKey</Code></Error>".getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                exchange.getResponseHeaders().add("ETag", "\"" + md5(content) + "\"");
+                send(exchange, 200, "application/octet-stream", content);
+            }
+            default -> send(exchange, 200, null, new byte[0]);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+        }
+        exchange.getResponseHeaders().add("x-amzn-RequestId", UUID.randomUUID().toString());
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Strips the chunk headers ({@code <hex-size>;chunk-signature=...\r\n}) and trailing CRLFs of an aws-chunked body.
+     */
+    private static byte[] decodeAwsChunked(byte[] body) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream(body.length);
+        int position = 0;
+        while (position < body.length) {
+            int lineEnd = indexOfCrlf(body, position);
+            String header = new String(body, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";", 2)[0].trim(), 16);
+            position = lineEnd + 2;
+            if (size == 0) {
+                break;
+            }
+            content.write(body, position, size);
+            position += size + 2;
+        }
+        return content.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] body, int from) {
+        for (int i = from; i < body.length - 1; i++) {
+            if (body[i] == '\r' && body[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return body.length;
+    }
+
+    private static String md5(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
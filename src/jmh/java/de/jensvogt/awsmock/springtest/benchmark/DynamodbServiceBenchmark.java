@@ -0,0 +1,34 @@
+package de.jensvogt.awsmock.springtest.benchmark;
+
+import de.jensvogt.awsmock.springtest.service.DynamodbService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DynamodbServiceBenchmark {
+
+    private static final String TABLE = "benchmark-table";
+
+    private DynamodbService dynamodbService;
+
+    @Setup(Level.Trial)
+    public void setup(ServiceContext serviceContext) {
+        dynamodbService = serviceContext.getBean(DynamodbService.class);
+    }
+
+    @Benchmark
+    public void putItem() {
+        dynamodbService.putItem(TABLE);
+    }
+
+    @Benchmark
+    public void getItem() {
+        dynamodbService.getItem(TABLE);
+    }
+}
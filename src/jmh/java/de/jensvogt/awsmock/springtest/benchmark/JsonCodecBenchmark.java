@@ -0,0 +1,69 @@
+package de.jensvogt.awsmock.springtest.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.jensvogt.awsmock.springtest.codec.JsonCodec;
+import de.jensvogt.awsmock.springtest.codec.JsonCodecs;
+import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a {@link TestMessage} through the application object mapper, as the SQS service did before, and
+ * through the codecs with and without Blackbird. Run with {@code -prof gc} for the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private ObjectMapper objectMapper;
+    private JsonCodec<TestMessage> codec;
+    private JsonCodec<TestMessage> blackbirdCodec;
+    private TestMessage testMessage;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setup(ServiceContext serviceContext) throws JsonProcessingException {
+        objectMapper = serviceContext.getBean(ObjectMapper.class);
+        codec = new JsonCodecs(objectMapper, false).codec(TestMessage.class);
+        blackbirdCodec = new JsonCodecs(objectMapper, true).codec(TestMessage.class);
+        testMessage = TestMessage.builder().testKey("benchmark-" + "x".repeat(200)).receiptHandle(UUID.randomUUID().toString()).build();
+        json = objectMapper.writeValueAsString(testMessage);
+    }
+
+    @Benchmark
+    public String encodeObjectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(testMessage);
+    }
+
+    @Benchmark
+    public String encodeCodec() throws JsonProcessingException {
+        return codec.encode(testMessage);
+    }
+
+    @Benchmark
+    public String encodeCodecBlackbird() throws JsonProcessingException {
+        return blackbirdCodec.encode(testMessage);
+    }
+
+    @Benchmark
+    public TestMessage decodeObjectMapper() throws JsonProcessingException {
+        return objectMapper.readValue(json, TestMessage.class);
+    }
+
+    @Benchmark
+    public TestMessage decodeCodec() throws JsonProcessingException {
+        return codec.decode(json);
+    }
+
+    @Benchmark
+    public TestMessage decodeCodecBlackbird() throws JsonProcessingException {
+        return blackbirdCodec.decode(json);
+    }
+}
@@ -0,0 +1,89 @@
+package de.jensvogt.awsmock.springtest.benchmark;
+
+import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import de.jensvogt.awsmock.springtest.service.SQSService;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging overhead on the request path with several request threads. Events go to a log file, the console appender
+ * is switched off, so the forked JVM's output pipe does not dominate. sendMessage runs the full client path with its
+ * log line, requestLogs only the log lines a sendMessage request writes in the controller and the service.
+ * <ul>
+ *     <li>SYNC_CALLER_DATA: synchronous appenders with %file:%line in the pattern, as the console pattern had before</li>
+ *     <li>SYNC: synchronous appenders, the default</li>
+ *     <li>ASYNC: asynchronous appenders, the async-logging profile</li>
+ *     <li>THROUGHPUT: the throughput profile, INFO events are aggregated per message pattern</li>
+ *     <li>OFF: de.jensvogt logs at WARN, the baseline</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger("de.jensvogt.awsmock.springtest.controller.SQSCommandController");
+
+    @Param({"SYNC_CALLER_DATA", "SYNC", "ASYNC", "THROUGHPUT", "OFF"})
+    private String mode;
+
+    private final ServiceContext serviceContext = new ServiceContext();
+    private SQSService sqsService;
+    private String queueUrl;
+    private TestMessage testMessage;
+    private Path logDirectory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        logDirectory = Files.createTempDirectory("awsmock-logging-benchmark");
+        List<String> arguments = new ArrayList<>(List.of("--logging.file.name=" + logDirectory.resolve("benchmark.log"), "--logging.threshold.console=OFF",
+                "--logging.level.de.jensvogt=" + (mode.equals("OFF") ? "WARN" : "INFO")));
+        switch (mode) {
+            case "SYNC_CALLER_DATA" -> arguments.add("--logging.pattern.file=%d [%thread] %-5level %logger{35} - %file:%line - %msg%n");
+            case "ASYNC" -> arguments.add("--spring.profiles.active=async-logging");
+            case "THROUGHPUT" -> arguments.add("--spring.profiles.active=throughput");
+            default -> {
+            }
+        }
+        serviceContext.setup(Duration.ZERO, arguments.toArray(String[]::new));
+        sqsService = serviceContext.getBean(SQSService.class);
+        queueUrl = serviceContext.queueUrl();
+        testMessage = TestMessage.builder().testKey("benchmark").build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        serviceContext.tearDown();
+        try (var files = Files.list(logDirectory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(logDirectory);
+    }
+
+    @Benchmark
+    public String sendMessage() throws Exception {
+        log.info("POST request, sendMessage, queueUrl: {} testMessage: {}", queueUrl, testMessage);
+        return sqsService.sendMessage(queueUrl, testMessage);
+    }
+
+    @Benchmark
+    public void requestLogs() {
+        log.info("POST request, sendMessage, queueUrl: {} testMessage: {}", queueUrl, testMessage);
+        log.info("Send message, queueUrl: {},id: {}", queueUrl, "00000000-0000-0000-0000-000000000000");
+    }
+}
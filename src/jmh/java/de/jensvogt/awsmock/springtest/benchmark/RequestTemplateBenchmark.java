@@ -0,0 +1,88 @@
+package de.jensvogt.awsmock.springtest.benchmark;
+
+import de.jensvogt.awsmock.springtest.service.RequestTemplates;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.dynamodb.model.*;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request construction only, without the SDK pipeline: the requests built from scratch, as the services did before,
+ * and derived from the {@link RequestTemplates}. Run with {@code -prof gc} for the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestTemplateBenchmark {
+
+    private static final String QUEUE_URL = "http://localhost:4566/000000000000/benchmark-queue";
+    private static final String TABLE = "benchmark-table";
+    private static final String MESSAGE_BODY = "{\"testKey\":\"benchmark\"}";
+
+    private final RequestTemplates requestTemplates = new RequestTemplates(100);
+
+    @Benchmark
+    public SendMessageRequest sendMessageAttributesBuilt() {
+        Map<String, MessageAttributeValue> attributes = new HashMap<>();
+        attributes.put("my_attribute_name_1", MessageAttributeValue.builder().dataType("String").stringValue("my_attribute_value_1").build());
+        attributes.put("my_attribute_name_2", MessageAttributeValue.builder().dataType("String").stringValue("my_attribute_value_2").build());
+        return SendMessageRequest.builder().queueUrl(QUEUE_URL).messageBody(MESSAGE_BODY).messageAttributes(attributes).build();
+    }
+
+    @Benchmark
+    public SendMessageRequest sendMessageAttributesTemplate() {
+        return requestTemplates.sendMessageAttributes(QUEUE_URL, MESSAGE_BODY);
+    }
+
+    @Benchmark
+    public CreateQueueRequest createQueueBuilt() {
+        Map<QueueAttributeName, String> attributes = new HashMap<>();
+        attributes.put(QueueAttributeName.VISIBILITY_TIMEOUT, String.valueOf(99));
+        Map<String, String> tags = new HashMap<>();
+        tags.put("tagName", "tagValue");
+        return CreateQueueRequest.builder().queueName("benchmark-queue").attributes(attributes).tags(tags).build();
+    }
+
+    @Benchmark
+    public CreateQueueRequest createQueueTemplate() {
+        return requestTemplates.createQueue("benchmark-queue");
+    }
+
+    @Benchmark
+    public CreateTableRequest createTableBuilt() {
+        AttributeDefinition attributeDefinition = AttributeDefinition.builder().attributeName("orgaNr").attributeType(ScalarAttributeType.N).build();
+        KeySchemaElement keySchemaElement = KeySchemaElement.builder().attributeName("orgaNr").keyType(KeyType.HASH).build();
+        return CreateTableRequest.builder()
+                .tableName(TABLE)
+                .attributeDefinitions(attributeDefinition)
+                .keySchema(keySchemaElement)
+                .provisionedThroughput(ProvisionedThroughput.builder().readCapacityUnits(5L).writeCapacityUnits(5L).build())
+                .build();
+    }
+
+    @Benchmark
+    public CreateTableRequest createTableTemplate() {
+        return requestTemplates.createTable(TABLE);
+    }
+
+    @Benchmark
+    public PutItemRequest putItemBuilt() {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("orgaNr", AttributeValue.builder().n("1").build());
+        return PutItemRequest.builder().tableName(TABLE).item(item).build();
+    }
+
+    @Benchmark
+    public PutItemRequest putItemTemplate() {
+        return requestTemplates.putItem(TABLE);
+    }
+}
@@ -0,0 +1,39 @@
+package de.jensvogt.awsmock.springtest.benchmark;
+
+import de.jensvogt.awsmock.springtest.service.S3Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class S3ServiceBenchmark {
+
+    private static final String BUCKET = "benchmark-bucket";
+    private static final String KEY = "benchmark-key";
+
+    @Param({"1"})
+    private long sizeMb;
+
+    private S3Service s3Service;
+
+    @Setup(Level.Trial)
+    public void setup(ServiceContext serviceContext) {
+        s3Service = serviceContext.getBean(S3Service.class);
+        s3Service.putObject(BUCKET, KEY, sizeMb);
+    }
+
+    @Benchmark
+    public void putObject() {
+        s3Service.putObject(BUCKET, KEY, sizeMb);
+    }
+
+    @Benchmark
+    public void getObject() {
+        s3Service.getObject(BUCKET, KEY);
+    }
+}
@@ -0,0 +1,27 @@
+package de.jensvogt.awsmock.springtest.benchmark;
+
+import de.jensvogt.awsmock.springtest.service.SNSService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SNSServiceBenchmark {
+
+    private SNSService snsService;
+
+    @Setup(Level.Trial)
+    public void setup(ServiceContext serviceContext) {
+        snsService = serviceContext.getBean(SNSService.class);
+    }
+
+    @Benchmark
+    public String createTopic() {
+        return snsService.createTopic("benchmark-topic");
+    }
+}
@@ -0,0 +1,38 @@
+package de.jensvogt.awsmock.springtest.benchmark;
+
+import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import de.jensvogt.awsmock.springtest.service.SQSService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SQSServiceBenchmark {
+
+    private SQSService sqsService;
+    private String queueUrl;
+    private TestMessage testMessage;
+
+    @Setup(Level.Trial)
+    public void setup(ServiceContext serviceContext) {
+        sqsService = serviceContext.getBean(SQSService.class);
+        queueUrl = serviceContext.queueUrl();
+        testMessage = TestMessage.builder().testKey("benchmark").build();
+    }
+
+    @Benchmark
+    public String sendMessage() throws Exception {
+        return sqsService.sendMessage(queueUrl, testMessage);
+    }
+
+    @Benchmark
+    public List<TestMessage> receiveMessages() throws Exception {
+        return sqsService.receiveMessages(queueUrl, 10, 0);
+    }
+}
@@ -0,0 +1,82 @@
+package de.jensvogt.awsmock.springtest.benchmark;
+
+import de.jensvogt.awsmock.springtest.AwsmockSpringTestApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the {@link AwsStubServer} and the application context without the web server, with all SDK clients pointing
+ * to the stub. Benchmarks take the service beans from here, so they run the full client-side path: service code,
+ * request builders, serialization and the SDK pipeline.
+ */
+@State(Scope.Benchmark)
+public class ServiceContext {
+
+    private AwsStubServer stubServer;
+    private ConfigurableApplicationContext context;
+    private Path awsDirectory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        setup(Duration.ZERO);
+    }
+
+    /**
+     * Starts the stub with the given long-poll delay, additional arguments (--name=value) override application properties
+     * and the defaults set here.
+     */
+    void setup(Duration longPollDelay, String... arguments) throws IOException {
+
+        awsDirectory = Files.createTempDirectory("awsmock-benchmark");
+        Path credentials = Files.writeString(awsDirectory.resolve("credentials"), "[default]\naws_access_key_id=none\naws_secret_access_key=none\n");
+        Path config = Files.writeString(awsDirectory.resolve("config"), "[default]\nregion=eu-central-1\n");
+        System.setProperty("aws.sharedCredentialsFile", credentials.toString());
+        System.setProperty("aws.configFile", config.toString());
+        System.setProperty("aws.profile", "default");
+
+        stubServer = new AwsStubServer(longPollDelay);
+        // Keyed by property name, as a property given twice on the command line is read as a list
+        Map<String, String> args = new LinkedHashMap<>();
+        for (String argument : List.of("--de.jensvogt.awsmock.endpoint=" + stubServer.endpoint(), "--logging.level.de.jensvogt=WARN",
+                "--de.jensvogt.awsmock.threads.pinning-monitor.enabled=false")) {
+            args.put(argument.substring(0, argument.indexOf('=')), argument);
+        }
+        for (String argument : arguments) {
+            args.put(argument.substring(0, argument.indexOf('=')), argument);
+        }
+        context = new SpringApplicationBuilder(AwsmockSpringTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.values().toArray(String[]::new));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        stubServer.close();
+        Files.deleteIfExists(awsDirectory.resolve("credentials"));
+        Files.deleteIfExists(awsDirectory.resolve("config"));
+        Files.deleteIfExists(awsDirectory);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public String queueUrl() {
+        return stubServer.queueUrl();
+    }
+}
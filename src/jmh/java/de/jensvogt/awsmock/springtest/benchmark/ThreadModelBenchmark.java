@@ -0,0 +1,118 @@
+package de.jensvogt.awsmock.springtest.benchmark;
+
+import de.jensvogt.awsmock.springtest.service.SQSService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a number of concurrent blocking long polls, each held by the stub for {@link #LONG_POLL_DELAY}, on a fixed pool
+ * of 200 platform threads (the Tomcat default) or on one virtual thread per call. The platform pool queues everything
+ * above 200 calls, so the time per batch grows with the number of rounds, while virtual threads keep all calls in
+ * flight at once. The peak number of calls in flight is reported as the secondary result peakInFlight. The client and
+ * the stub share the machine, so with only a few cores the CPU time of signing and serialization shows up in the
+ * results as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+    private static final Duration LONG_POLL_DELAY = Duration.ofSeconds(1);
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private String threads;
+
+    @Param({"100", "1000"})
+    private int concurrency;
+
+    private final ServiceContext serviceContext = new ServiceContext();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private SQSService sqsService;
+    private String queueUrl;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        // The connection pool must not be the limit, otherwise both thread models queue for connections
+        serviceContext.setup(LONG_POLL_DELAY, "--de.jensvogt.awsmock.http.max-connections=2000");
+        sqsService = serviceContext.getBean(SQSService.class);
+        queueUrl = serviceContext.queueUrl();
+        executor = threads.equals("VIRTUAL")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS, Thread.ofPlatform().name("platform-", 0).factory());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        serviceContext.tearDown();
+    }
+
+    @Benchmark
+    public int longPolls(InFlightCounters counters) throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(executor.submit(this::longPoll));
+        }
+        int received = 0;
+        for (Future<Integer> future : futures) {
+            received += future.get();
+        }
+        counters.record(peakInFlight.getAndSet(0));
+        return received;
+    }
+
+    /**
+     * Peak number of long polls in flight during the measurement. JMH resets the counter for every iteration and sums
+     * it over the iterations, so an iteration only counts the amount by which it raised the peak.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class InFlightCounters {
+
+        public long peakInFlight;
+
+        private long measuredPeak;
+        private boolean measuring;
+
+        @Setup(Level.Iteration)
+        public void startIteration(IterationParams iterationParams) {
+            if (iterationParams.getType() == IterationType.MEASUREMENT && !measuring) {
+                measuring = true;
+                measuredPeak = 0;
+            }
+        }
+
+        void record(long peak) {
+            if (peak > measuredPeak) {
+                peakInFlight += peak - measuredPeak;
+                measuredPeak = peak;
+            }
+        }
+    }
+
+    private int longPoll() throws Exception {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            return sqsService.receiveMessages(queueUrl, 10, 1).size();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
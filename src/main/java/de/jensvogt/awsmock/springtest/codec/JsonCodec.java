@@ -0,0 +1,46 @@
+package de.jensvogt.awsmock.springtest.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+
+/**
+ * JSON reader and writer bound to one type. Both are created once, with the root serializer and deserializer fetched
+ * up front, so a call skips the type lookup and the serializer cache of the {@link ObjectMapper}. Instances are
+ * immutable and thread-safe.
+ */
+public final class JsonCodec<T> {
+
+    private final Class<T> type;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    JsonCodec(ObjectMapper objectMapper, Class<T> type) {
+        this.type = type;
+        this.reader = objectMapper.readerFor(type);
+        this.writer = objectMapper.writerFor(type);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public String encode(T value) throws JsonProcessingException {
+        return writer.writeValueAsString(value);
+    }
+
+    public byte[] encodeToBytes(T value) throws JsonProcessingException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    public T decode(String json) throws JsonProcessingException {
+        return reader.readValue(json);
+    }
+
+    public T decode(byte[] json) throws IOException {
+        return reader.readValue(json);
+    }
+}
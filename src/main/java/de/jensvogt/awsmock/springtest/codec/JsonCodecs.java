@@ -0,0 +1,37 @@
+package de.jensvogt.awsmock.springtest.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link JsonCodec}s. The codecs share a copy of the application object mapper, so they keep its
+ * configuration, optionally with the Blackbird module, which replaces the reflective property access with generated
+ * lambdas. The application object mapper itself is not changed.
+ */
+public class JsonCodecs {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, JsonCodec<?>> codecs = new ConcurrentHashMap<>();
+
+    public JsonCodecs(ObjectMapper objectMapper, boolean blackbird) {
+        this.objectMapper = objectMapper.copy();
+        if (blackbird) {
+            this.objectMapper.registerModule(new BlackbirdModule());
+        }
+    }
+
+    /**
+     * Returns the codec for the type, creating it on first use.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> JsonCodec<T> codec(Class<T> type) {
+        return (JsonCodec<T>) codecs.computeIfAbsent(type, key -> new JsonCodec<>(objectMapper, key));
+    }
+
+    public int size() {
+        return codecs.size();
+    }
+}
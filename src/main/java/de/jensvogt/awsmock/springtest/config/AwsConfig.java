@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.awspring.cloud.sqs.config.SqsMessageListenerContainerFactory;
 import io.awspring.cloud.sqs.operations.SqsTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,20 +15,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Primary;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
 import software.amazon.awssdk.awscore.AwsClient;
+import software.amazon.awssdk.awscore.client.builder.AwsAsyncClientBuilder;
 import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.awscore.client.builder.AwsSyncClientBuilder;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.cognitoidentity.CognitoIdentityClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
-import software.amazon.awssdk.services.s3.internal.crt.S3CrtAsyncClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
 import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.SqsAsyncClientBuilder;
@@ -49,6 +57,14 @@ public class AwsConfig {
     @Value("${server.port}")
     private int serverPort;
 
+    private final SdkHttpClient sdkHttpClient;
+
+    private final SdkAsyncHttpClient sdkAsyncHttpClient;
+
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+
+    private final MetricsExecutionInterceptor metricsExecutionInterceptor;
+
     @Primary
     @Bean(name = "credentialsProvider")
     public AwsCredentialsProvider awsCredentialsProvider() {
@@ -57,20 +73,22 @@ public class AwsConfig {
 
     @Bean
     @Primary
+    @Lazy
     public SqsAsyncClient sqsAsyncClient(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
         SqsAsyncClientBuilder builder = SqsAsyncClient.builder();
-        return buildClient(builder, awsCredentialsProvider);
+        return buildAsyncClient(builder, awsCredentialsProvider);
     }
 
     @Bean
     @Primary
+    @Lazy
     public SqsClient sqsClient(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
         return buildClient(SqsClient.builder(), awsCredentialsProvider);
     }
 
     @Bean
     @Primary
-    public SqsTemplate sqsTemplate(SqsAsyncClient sqsAsyncClient, ObjectMapper objectMapper) {
+    public SqsTemplate sqsTemplate(@Lazy SqsAsyncClient sqsAsyncClient, ObjectMapper objectMapper) {
         // Receiving end will fail to deserialize message when JavaType-Header is set in message and DTO
         // is not in same package as on sending side. Disabling default behaviour. See
         // https://docs.awspring.io/spring-cloud-aws/docs/3.0.0/reference/html/index.html#specifying-a-payload-class-for-receive-operations
@@ -84,14 +102,33 @@ public class AwsConfig {
                 .build();
     }
 
+    /**
+     * Replaces the auto-configured factory, which would create the SQS client at startup.
+     */
+    @Bean
+    public SqsMessageListenerContainerFactory<Object> defaultSqsListenerContainerFactory(@Lazy SqsAsyncClient sqsAsyncClient) {
+        return SqsMessageListenerContainerFactory.builder()
+                .sqsAsyncClient(sqsAsyncClient)
+                .build();
+    }
+
     @Bean
     @Primary
+    @Lazy
     public SnsClient snsClient(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
         return buildClient(SnsClient.builder(), awsCredentialsProvider);
     }
 
     @Bean
     @Primary
+    @Lazy
+    public SnsAsyncClient snsAsyncClient(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
+        return buildAsyncClient(SnsAsyncClient.builder(), awsCredentialsProvider);
+    }
+
+    @Bean
+    @Primary
+    @Lazy
     public S3Client s3Client(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
         S3ClientBuilder builder = S3Client.builder().forcePathStyle(true);
         return buildClient(builder, awsCredentialsProvider);
@@ -99,18 +136,14 @@ public class AwsConfig {
 
     @Bean
     @Primary
-    public S3AsyncClient s3AsyncClient(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
-        return S3CrtAsyncClient.builder()
-                .credentialsProvider(awsCredentialsProvider)
-                .checksumValidationEnabled(false)
-                .region(Region.EU_CENTRAL_1)
-                .endpointOverride(URI.create(awsmockEndpoint))
-                .forcePathStyle(true)
-                .build();
+    @Lazy
+    public S3AsyncClient s3AsyncClient(S3TransferManagerFactory s3TransferManagerFactory) {
+        return s3TransferManagerFactory.createClient(null);
     }
 
     @Bean
     @Primary
+    @Lazy
     public S3TransferManager s3TransferManager(S3AsyncClient s3AsyncClient) {
         return S3TransferManager.builder()
                 .s3Client(s3AsyncClient)
@@ -119,20 +152,37 @@ public class AwsConfig {
 
     @Bean
     @Primary
+    @Lazy
     public CognitoIdentityClient cognitoIdentityClient(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
         return buildClient(CognitoIdentityClient.builder(), awsCredentialsProvider);
     }
 
     @Bean
     @Primary
+    @Lazy
     public CognitoIdentityProviderClient cognitoIdentityProviderClient(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
-        return CognitoIdentityProviderClient.builder().credentialsProvider(awsCredentialsProvider).endpointOverride(URI.create(awsmockEndpoint)).region(Region.EU_CENTRAL_1).build();
+        return buildClient(CognitoIdentityProviderClient.builder(), awsCredentialsProvider);
+    }
+
+    @Bean
+    @Primary
+    @Lazy
+    public CognitoIdentityProviderAsyncClient cognitoIdentityProviderAsyncClient(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
+        return buildAsyncClient(CognitoIdentityProviderAsyncClient.builder(), awsCredentialsProvider);
     }
 
     @Bean
     @Primary
+    @Lazy
     public DynamoDbClient dynamoDbClient(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
-        return DynamoDbClient.builder().credentialsProvider(awsCredentialsProvider).endpointOverride(URI.create(awsmockEndpoint)).region(Region.EU_CENTRAL_1).build();
+        return buildClient(DynamoDbClient.builder(), awsCredentialsProvider);
+    }
+
+    @Bean
+    @Primary
+    @Lazy
+    public DynamoDbAsyncClient dynamoDbAsyncClient(@Autowired(required = false) AwsCredentialsProvider awsCredentialsProvider) {
+        return buildAsyncClient(DynamoDbAsyncClient.builder(), awsCredentialsProvider);
     }
 
     /**
@@ -153,9 +203,18 @@ public class AwsConfig {
         return objectMapper;
     }
 
-    private <T extends AwsClientBuilder<T, S>, S extends AwsClient> S buildClient(
+    private <T extends AwsClientBuilder<T, S> & AwsSyncClientBuilder<T, S>, S extends AwsClient> S buildClient(
+            T builder, AwsCredentialsProvider awsCredentialsProvider) {
+        setEndpointAndRegion(builder, awsCredentialsProvider);
+        builder.httpClient(sdkHttpClient);
+
+        return builder.build();
+    }
+
+    private <T extends AwsClientBuilder<T, S> & AwsAsyncClientBuilder<T, S>, S extends AwsClient> S buildAsyncClient(
             T builder, AwsCredentialsProvider awsCredentialsProvider) {
         setEndpointAndRegion(builder, awsCredentialsProvider);
+        builder.httpClient(sdkAsyncHttpClient);
 
         return builder.build();
     }
@@ -165,6 +224,7 @@ public class AwsConfig {
         log.info("Using endpoint: {}, serverPort: {}", awsmockEndpoint, serverPort);
         builder.region(Region.EU_CENTRAL_1);
         builder.endpointOverride(URI.create(awsmockEndpoint));
+        builder.overrideConfiguration(c -> c.addMetricPublisher(connectionPoolMetrics).addExecutionInterceptor(metricsExecutionInterceptor));
         if (awsCredentialsProvider != null) {
             builder.credentialsProvider(awsCredentialsProvider);
         }
@@ -0,0 +1,85 @@
+package de.jensvogt.awsmock.springtest.config;
+
+import de.jensvogt.awsmock.springtest.dto.ConnectionPoolStats;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the connection pool metrics the HTTP clients report with every request. Gauges keep the value of the last
+ * request, the acquire duration is aggregated.
+ */
+@Component
+public class ConnectionPoolMetrics implements MetricPublisher {
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(MetricCollection metricCollection) {
+        metricCollection.children().forEach(this::publish);
+        List<String> clientNames = metricCollection.metricValues(HttpMetric.HTTP_CLIENT_NAME);
+        if (!clientNames.isEmpty()) {
+            pools.computeIfAbsent(clientNames.get(0), Pool::new).update(metricCollection);
+        }
+    }
+
+    public List<ConnectionPoolStats> stats() {
+        return pools.values().stream().map(Pool::stats).toList();
+    }
+
+    @Override
+    public void close() {
+        pools.clear();
+    }
+
+    private static class Pool {
+
+        private final String name;
+        private int maxConcurrency;
+        private int leasedConcurrency;
+        private int availableConcurrency;
+        private int pendingConcurrencyAcquires;
+        private long requests;
+        private long acquireTotalNanos;
+        private long acquireMaxNanos;
+
+        Pool(String name) {
+            this.name = name;
+        }
+
+        synchronized void update(MetricCollection metrics) {
+            maxConcurrency = last(metrics.metricValues(HttpMetric.MAX_CONCURRENCY), maxConcurrency);
+            leasedConcurrency = last(metrics.metricValues(HttpMetric.LEASED_CONCURRENCY), leasedConcurrency);
+            availableConcurrency = last(metrics.metricValues(HttpMetric.AVAILABLE_CONCURRENCY), availableConcurrency);
+            pendingConcurrencyAcquires = last(metrics.metricValues(HttpMetric.PENDING_CONCURRENCY_ACQUIRES), pendingConcurrencyAcquires);
+            for (Duration duration : metrics.metricValues(HttpMetric.CONCURRENCY_ACQUIRE_DURATION)) {
+                acquireTotalNanos += duration.toNanos();
+                acquireMaxNanos = Math.max(acquireMaxNanos, duration.toNanos());
+            }
+            requests++;
+        }
+
+        synchronized ConnectionPoolStats stats() {
+            return ConnectionPoolStats.builder()
+                    .httpClient(name)
+                    .maxConcurrency(maxConcurrency)
+                    .leasedConcurrency(leasedConcurrency)
+                    .availableConcurrency(availableConcurrency)
+                    .pendingConcurrencyAcquires(pendingConcurrencyAcquires)
+                    .requests(requests)
+                    .acquireAvgMs(requests > 0 ? acquireTotalNanos / 1e6 / requests : 0)
+                    .acquireMaxMs(acquireMaxNanos / 1e6)
+                    .build();
+        }
+
+        private static int last(List<Integer> values, int current) {
+            return values.isEmpty() ? current : values.get(values.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package de.jensvogt.awsmock.springtest.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+
+import java.time.Duration;
+
+/**
+ * HTTP clients shared by all SDK clients, so the connection pool limits apply to the whole application instead of
+ * each SDK client.
+ */
+@Slf4j
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${de.jensvogt.awsmock.http.max-connections}")
+    private int maxConnections;
+
+    @Value("${de.jensvogt.awsmock.http.connection-ttl-ms}")
+    private long connectionTtlMs;
+
+    @Value("${de.jensvogt.awsmock.http.connection-max-idle-ms}")
+    private long connectionMaxIdleMs;
+
+    @Value("${de.jensvogt.awsmock.http.idle-connection-reaper}")
+    private boolean idleConnectionReaper;
+
+    @Value("${de.jensvogt.awsmock.http.tcp-keep-alive}")
+    private boolean tcpKeepAlive;
+
+    @Value("${de.jensvogt.awsmock.http.connection-acquisition-timeout-ms}")
+    private long connectionAcquisitionTimeoutMs;
+
+    @Value("${de.jensvogt.awsmock.http.async.max-concurrency}")
+    private int asyncMaxConcurrency;
+
+    @Value("${de.jensvogt.awsmock.http.async.max-pending-connection-acquires}")
+    private int asyncMaxPendingConnectionAcquires;
+
+    @Bean
+    public SdkHttpClient sdkHttpClient() {
+
+        log.info("Creating shared Apache HTTP client, maxConnections: {}, connectionTtlMs: {}, connectionMaxIdleMs: {}", maxConnections, connectionTtlMs, connectionMaxIdleMs);
+        ApacheHttpClient.Builder builder = ApacheHttpClient.builder()
+                .maxConnections(maxConnections)
+                .connectionMaxIdleTime(Duration.ofMillis(connectionMaxIdleMs))
+                .useIdleConnectionReaper(idleConnectionReaper)
+                .tcpKeepAlive(tcpKeepAlive)
+                .connectionAcquisitionTimeout(Duration.ofMillis(connectionAcquisitionTimeoutMs));
+        if (connectionTtlMs > 0) {
+            builder.connectionTimeToLive(Duration.ofMillis(connectionTtlMs));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public SdkAsyncHttpClient sdkAsyncHttpClient() {
+
+        log.info("Creating shared Netty HTTP client, maxConcurrency: {}, maxPendingConnectionAcquires: {}", asyncMaxConcurrency, asyncMaxPendingConnectionAcquires);
+        NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(asyncMaxConcurrency)
+                .maxPendingConnectionAcquires(asyncMaxPendingConnectionAcquires)
+                .connectionMaxIdleTime(Duration.ofMillis(connectionMaxIdleMs))
+                .useIdleConnectionReaper(idleConnectionReaper)
+                .tcpKeepAlive(tcpKeepAlive)
+                .connectionAcquisitionTimeout(Duration.ofMillis(connectionAcquisitionTimeoutMs));
+        if (connectionTtlMs > 0) {
+            builder.connectionTimeToLive(Duration.ofMillis(connectionTtlMs));
+        }
+        return builder.build();
+    }
+}
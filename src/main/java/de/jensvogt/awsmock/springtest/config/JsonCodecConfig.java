@@ -0,0 +1,49 @@
+package de.jensvogt.awsmock.springtest.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.jensvogt.awsmock.springtest.codec.JsonCodec;
+import de.jensvogt.awsmock.springtest.codec.JsonCodecs;
+import de.jensvogt.awsmock.springtest.dto.FanOutMessage;
+import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * JSON codecs for the message hot paths. The configured types are registered at startup, so the first message does not
+ * pay for building the serializers.
+ */
+@Slf4j
+@Configuration
+public class JsonCodecConfig {
+
+    @Value("${de.jensvogt.awsmock.json.codec.blackbird}")
+    private boolean blackbird;
+
+    @Value("${de.jensvogt.awsmock.json.codec.types}")
+    private List<String> types;
+
+    @Bean
+    public JsonCodecs jsonCodecs(ObjectMapper objectMapper) throws ClassNotFoundException {
+        JsonCodecs jsonCodecs = new JsonCodecs(objectMapper, blackbird);
+        for (String type : types) {
+            jsonCodecs.codec(ClassUtils.forName(type.trim(), getClass().getClassLoader()));
+        }
+        log.info("JSON codecs registered, types: {}, blackbird: {}", jsonCodecs.size(), blackbird);
+        return jsonCodecs;
+    }
+
+    @Bean
+    public JsonCodec<TestMessage> testMessageCodec(JsonCodecs jsonCodecs) {
+        return jsonCodecs.codec(TestMessage.class);
+    }
+
+    @Bean
+    public JsonCodec<FanOutMessage> fanOutMessageCodec(JsonCodecs jsonCodecs) {
+        return jsonCodecs.codec(FanOutMessage.class);
+    }
+}
@@ -0,0 +1,107 @@
+package de.jensvogt.awsmock.springtest.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.SdkHttpResponse;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes a timer per service and operation for every SDK call, together with the number of retries and the request
+ * and response sizes. Percentiles and histograms are configured with the management.metrics.distribution properties.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsExecutionInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>("MetricsStartNanos");
+    private static final ExecutionAttribute<Integer> ATTEMPTS = new ExecutionAttribute<>("MetricsAttempts");
+    private static final ExecutionAttribute<Long> REQUEST_BYTES = new ExecutionAttribute<>("MetricsRequestBytes");
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+        executionAttributes.putAttribute(ATTEMPTS, 0);
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(ATTEMPTS, executionAttributes.getAttribute(ATTEMPTS) + 1);
+        Optional<Long> contentLength = context.requestBody().flatMap(body -> body.optionalContentLength())
+                .or(() -> context.asyncRequestBody().flatMap(body -> body.contentLength()))
+                .or(() -> contentLength(context.httpRequest().firstMatchingHeader("Content-Length")));
+        contentLength.ifPresent(bytes -> executionAttributes.putAttribute(REQUEST_BYTES, bytes));
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, "success", context.httpResponse());
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, "failure", context.httpResponse().orElse(null));
+    }
+
+    private void record(ExecutionAttributes executionAttributes, String outcome, SdkHttpResponse httpResponse) {
+        Long startNanos = executionAttributes.getAttribute(START_NANOS);
+        if (startNanos == null) {
+            return;
+        }
+        Tags tags = Tags.of(
+                "service", String.valueOf(executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME)),
+                "operation", String.valueOf(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME)));
+
+        Timer.builder("aws.client.requests")
+                .description("Duration of AWS SDK calls including retries")
+                .tags(tags)
+                .tag("outcome", outcome)
+                .tag("status", httpResponse != null ? String.valueOf(httpResponse.statusCode()) : "NONE")
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        int attempts = executionAttributes.getAttribute(ATTEMPTS);
+        DistributionSummary.builder("aws.client.retries")
+                .description("Retries per AWS SDK call")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(Math.max(0, attempts - 1));
+
+        Long requestBytes = executionAttributes.getAttribute(REQUEST_BYTES);
+        if (requestBytes != null) {
+            DistributionSummary.builder("aws.client.request.bytes")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(requestBytes);
+        }
+        if (httpResponse != null) {
+            contentLength(httpResponse.firstMatchingHeader("Content-Length")).ifPresent(bytes ->
+                    DistributionSummary.builder("aws.client.response.bytes")
+                            .baseUnit("bytes")
+                            .tags(tags)
+                            .register(meterRegistry)
+                            .record(bytes));
+        }
+    }
+
+    private static Optional<Long> contentLength(Optional<String> header) {
+        try {
+            return header.map(Long::parseLong);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
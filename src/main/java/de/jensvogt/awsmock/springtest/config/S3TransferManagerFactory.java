@@ -0,0 +1,177 @@
+package de.jensvogt.awsmock.springtest.config;
+
+import de.jensvogt.awsmock.springtest.dto.TransferSettings;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Builds CRT based S3 clients and transfer managers. Transfer managers for non-default settings are created on first
+ * use and kept, as every CRT client owns its own native event loop and connection pool. At most max-managers of them
+ * are kept, the least recently used one is evicted when another one is needed and closed once no transfer runs on it.
+ * Like the SDK clients the factory is created on first use.
+ */
+@Slf4j
+@Lazy
+@Component
+@RequiredArgsConstructor
+public class S3TransferManagerFactory {
+
+    private static final long MB = 1024L * 1024L;
+
+    private final AwsCredentialsProvider awsCredentialsProvider;
+
+    private final Map<TransferSettings, ManagedTransferManager> transferManagers = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${de.jensvogt.awsmock.endpoint}")
+    private String awsmockEndpoint;
+
+    @Value("${de.jensvogt.awsmock.s3.transfer.target-throughput-gbps}")
+    private double targetThroughputGbps;
+
+    @Value("${de.jensvogt.awsmock.s3.transfer.minimum-part-size-mb}")
+    private long minimumPartSizeMb;
+
+    @Value("${de.jensvogt.awsmock.s3.transfer.max-concurrency}")
+    private int maxConcurrency;
+
+    @Value("${de.jensvogt.awsmock.s3.transfer.max-managers}")
+    private int maxManagers;
+
+    public S3AsyncClient createClient(TransferSettings settings) {
+
+        TransferSettings resolved = resolve(settings);
+        log.info("Creating S3 CRT client, targetThroughputGbps: {}, minimumPartSizeMb: {}, maxConcurrency: {}",
+                resolved.getTargetThroughputGbps(), resolved.getMinimumPartSizeMb(), resolved.getMaxConcurrency());
+        return S3AsyncClient.crtBuilder()
+                .credentialsProvider(awsCredentialsProvider)
+                .checksumValidationEnabled(false)
+                .region(Region.EU_CENTRAL_1)
+                .endpointOverride(URI.create(awsmockEndpoint))
+                .forcePathStyle(true)
+                .targetThroughputInGbps(resolved.getTargetThroughputGbps())
+                .minimumPartSizeInBytes(resolved.getMinimumPartSizeMb() * MB)
+                .maxConcurrency(resolved.getMaxConcurrency())
+                .build();
+    }
+
+    /**
+     * Runs the transfer on the transfer manager for the settings and waits for its completion. Transfers in flight are
+     * counted per manager, an evicted manager is closed when its last transfer has completed.
+     */
+    public <T> T transfer(TransferSettings settings, Function<S3TransferManager, CompletableFuture<T>> transfer) {
+        ManagedTransferManager managed = acquire(resolve(settings));
+        try {
+            return transfer.apply(managed.transferManager).join();
+        } finally {
+            release(managed);
+        }
+    }
+
+    /**
+     * Part size in bytes the CRT client uses for the given settings.
+     */
+    public long partSize(TransferSettings settings) {
+        return resolve(settings).getMinimumPartSizeMb() * MB;
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            transferManagers.values().forEach(ManagedTransferManager::close);
+            transferManagers.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ManagedTransferManager acquire(TransferSettings resolved) {
+        ManagedTransferManager evicted = null;
+        lock.lock();
+        try {
+            ManagedTransferManager managed = transferManagers.get(resolved);
+            if (managed == null) {
+                if (transferManagers.size() >= Math.max(maxManagers, 1)) {
+                    Iterator<ManagedTransferManager> eldest = transferManagers.values().iterator();
+                    ManagedTransferManager removed = eldest.next();
+                    eldest.remove();
+                    removed.evicted = true;
+                    evicted = removed.inFlight == 0 ? removed : null;
+                }
+                S3AsyncClient s3AsyncClient = createClient(resolved);
+                managed = new ManagedTransferManager(s3AsyncClient, S3TransferManager.builder().s3Client(s3AsyncClient).build());
+                transferManagers.put(resolved, managed);
+            }
+            managed.inFlight++;
+            return managed;
+        } finally {
+            lock.unlock();
+            if (evicted != null) {
+                log.info("Closing least recently used S3 transfer manager, maxManagers: {}", maxManagers);
+                evicted.close();
+            }
+        }
+    }
+
+    private void release(ManagedTransferManager managed) {
+        boolean close;
+        lock.lock();
+        try {
+            managed.inFlight--;
+            close = managed.evicted && managed.inFlight == 0;
+        } finally {
+            lock.unlock();
+        }
+        if (close) {
+            log.info("Closing evicted S3 transfer manager after its last transfer, maxManagers: {}", maxManagers);
+            managed.close();
+        }
+    }
+
+    private TransferSettings resolve(TransferSettings settings) {
+        return TransferSettings.builder()
+                .targetThroughputGbps(settings != null && settings.getTargetThroughputGbps() != null ? settings.getTargetThroughputGbps() : targetThroughputGbps)
+                .minimumPartSizeMb(settings != null && settings.getMinimumPartSizeMb() != null ? settings.getMinimumPartSizeMb() : minimumPartSizeMb)
+                .maxConcurrency(settings != null && settings.getMaxConcurrency() != null ? settings.getMaxConcurrency() : maxConcurrency > 0 ? maxConcurrency : null)
+                .build();
+    }
+
+    /**
+     * A transfer manager with its own CRT client. The counters are guarded by the factory's lock.
+     */
+    private static final class ManagedTransferManager {
+
+        private final S3AsyncClient s3AsyncClient;
+        private final S3TransferManager transferManager;
+        private int inFlight;
+        private boolean evicted;
+
+        private ManagedTransferManager(S3AsyncClient s3AsyncClient, S3TransferManager transferManager) {
+            this.s3AsyncClient = s3AsyncClient;
+            this.transferManager = transferManager;
+        }
+
+        void close() {
+            transferManager.close();
+            s3AsyncClient.close();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package de.jensvogt.awsmock.springtest.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The SDK clients are lazy beans, which the services get injected as lazy proxies, so a job that only talks to SQS
+ * never builds the S3 CRT client. The clients of the services listed in de.jensvogt.awsmock.startup.eager-services are
+ * switched back to eager and created at startup.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final String SDK_SERVICES_PACKAGE = "software.amazon.awssdk.services.";
+
+    /**
+     * Static, as bean factory post-processors are invoked before the configuration classes are instantiated.
+     */
+    @Bean
+    static BeanFactoryPostProcessor eagerClients(Environment environment) {
+        Set<String> eagerServices = Set.copyOf(Arrays.asList(environment.getProperty("de.jensvogt.awsmock.startup.eager-services", String[].class, new String[0])));
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+                if (beanDefinition.isLazyInit() && isEagerClient(beanFactory.getType(beanName, false), eagerServices)) {
+                    beanDefinition.setLazyInit(false);
+                }
+            }
+        };
+    }
+
+    private static boolean isEagerClient(Class<?> beanType, Set<String> eagerServices) {
+        if (beanType == null || !beanType.getPackageName().startsWith(SDK_SERVICES_PACKAGE)) {
+            return false;
+        }
+        String service = beanType.getPackageName().substring(SDK_SERVICES_PACKAGE.length());
+        int end = service.indexOf('.');
+        return eagerServices.contains(end < 0 ? service : service.substring(0, end));
+    }
+}
@@ -0,0 +1,86 @@
+package de.jensvogt.awsmock.springtest.config;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import de.jensvogt.awsmock.springtest.dto.StartupStats;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records the startup phases relative to the JVM start: the application ready event and the first request served. The
+ * first request also pays for creating the lazy SDK clients it needs, so both numbers together give the time to first
+ * response.
+ */
+@Slf4j
+@Component
+public class StartupTimer extends OncePerRequestFilter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final AtomicBoolean firstRequest = new AtomicBoolean();
+    private long applicationStartupMs;
+    private long readyMs;
+    private long loadedClassesAtReady;
+    private String firstRequestPath;
+    private long firstRequestMs;
+    private long firstResponseMs;
+
+    @Value("${spring.main.lazy-initialization:false}")
+    private boolean lazyInitialization;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        readyMs = uptimeMs();
+        applicationStartupMs = event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : 0;
+        loadedClassesAtReady = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+        log.info("Application ready, readyMs: {}, applicationStartupMs: {}, lazyInitialization: {}, aot: {}", readyMs, applicationStartupMs,
+                lazyInitialization, AotDetector.useGeneratedArtifacts());
+    }
+
+    public StartupStats stats() {
+        return StartupStats.builder()
+                .lazyInitialization(lazyInitialization)
+                .aot(AotDetector.useGeneratedArtifacts())
+                .sharedArchiveFile(StringUtils.defaultIfEmpty(ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).getVMOption("SharedArchiveFile").getValue(), null))
+                .applicationStartupMs(applicationStartupMs)
+                .readyMs(readyMs)
+                .loadedClassesAtReady(loadedClassesAtReady)
+                .firstRequestPath(firstRequestPath)
+                .firstRequestMs(firstRequestMs)
+                .firstResponseMs(firstResponseMs)
+                .loadedClasses(ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount())
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!firstRequest.compareAndSet(false, true)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = uptimeMs();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            firstRequestPath = request.getRequestURI();
+            firstResponseMs = uptimeMs();
+            firstRequestMs = firstResponseMs - start;
+            log.info("First request served, path: {}, firstRequestMs: {}, firstResponseMs: {}", firstRequestPath, firstRequestMs, firstResponseMs);
+        }
+    }
+
+    private static long uptimeMs() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
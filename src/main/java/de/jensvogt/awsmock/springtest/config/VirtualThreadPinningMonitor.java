@@ -0,0 +1,133 @@
+package de.jensvogt.awsmock.springtest.config;
+
+import de.jensvogt.awsmock.springtest.dto.PinnedThreadEvent;
+import de.jensvogt.awsmock.springtest.dto.ThreadStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Streams the JFR jdk.VirtualThreadPinned events of the running JVM. A virtual thread is pinned when it blocks inside
+ * a synchronized block or a native frame, which keeps its carrier thread from running other virtual threads. The last
+ * events are kept with their top stack frames to find the blocking code.
+ */
+@Slf4j
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 10;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final Deque<PinnedThreadEvent> events = new ArrayDeque<>();
+    private long pinnedEvents;
+    private double pinnedMaxMs;
+    private RecordingStream recordingStream;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${de.jensvogt.awsmock.threads.pinning-monitor.enabled}")
+    private boolean enabled;
+
+    @Value("${de.jensvogt.awsmock.threads.pinning-monitor.threshold-ms}")
+    private long thresholdMs;
+
+    @Value("${de.jensvogt.awsmock.threads.pinning-monitor.max-events}")
+    private int maxEvents;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::record);
+        recordingStream.startAsync();
+        log.info("Pinning monitor started, thresholdMs: {}", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    public synchronized List<PinnedThreadEvent> events() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized ThreadStats stats() {
+        return ThreadStats.builder()
+                .virtualThreads(virtualThreads)
+                .pinningMonitor(recordingStream != null)
+                .platformThreads(threadMXBean.getThreadCount())
+                .peakPlatformThreads(threadMXBean.getPeakThreadCount())
+                .pinnedEvents(pinnedEvents)
+                .pinnedMaxMs(pinnedMaxMs)
+                .build();
+    }
+
+    public synchronized void reset() {
+        events.clear();
+        pinnedEvents = 0;
+        pinnedMaxMs = 0;
+        threadMXBean.resetPeakThreadCount();
+    }
+
+    private void record(RecordedEvent event) {
+        PinnedThreadEvent pinned = PinnedThreadEvent.builder()
+                .startTime(event.getStartTime())
+                .durationMs(event.getDuration().toNanos() / 1e6)
+                .threadName(threadName(event.getThread()))
+                .stackTrace(frames(event))
+                .build();
+        log.warn("Virtual thread pinned, thread: {}, durationMs: {}, frame: {}", pinned.getThreadName(), pinned.getDurationMs(),
+                pinned.getStackTrace().isEmpty() ? null : pinned.getStackTrace().get(0));
+        synchronized (this) {
+            pinnedEvents++;
+            pinnedMaxMs = Math.max(pinnedMaxMs, pinned.getDurationMs());
+            if (events.size() >= maxEvents) {
+                events.removeFirst();
+            }
+            events.addLast(pinned);
+        }
+    }
+
+    private static String threadName(RecordedThread thread) {
+        if (thread == null) {
+            return null;
+        }
+        return thread.getJavaName() != null && !thread.getJavaName().isEmpty() ? thread.getJavaName() : "virtual-" + thread.getJavaThreadId();
+    }
+
+    private static List<String> frames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return List.of();
+        }
+        List<String> frames = new ArrayList<>(STACK_DEPTH);
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (frames.size() == STACK_DEPTH) {
+                break;
+            }
+            frames.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber());
+        }
+        return frames;
+    }
+}
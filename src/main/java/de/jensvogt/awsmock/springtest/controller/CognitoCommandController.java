@@ -1,11 +1,15 @@
 package de.jensvogt.awsmock.springtest.controller;
 
+import de.jensvogt.awsmock.springtest.dto.BatchResult;
 import de.jensvogt.awsmock.springtest.service.CognitoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -33,6 +37,15 @@ public class CognitoCommandController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping(path = "/listAllUserPools", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> listAllUserPools(@RequestParam(value = "limit", required = false) Integer limit) {
+
+        log.info("GET request, listAllUserPools, limit: {}", limit);
+        StreamingResponseBody body = outputStream -> cognitoService.listUserPools(limit, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping(path = "/describeUserPool", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> describeUserPool(@RequestParam("userPoolId") String userPoolId) {
 
@@ -78,6 +91,13 @@ public class CognitoCommandController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping(path = "/createUserAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<Void>> createUserAsync(@RequestParam("userPoolId") String userPoolId, @RequestParam("userName") String userName) {
+
+        log.info("POST request, createUserAsync, userPoolId: {}, userName: {}", userPoolId, userName);
+        return cognitoService.createUserAsync(userPoolId, userName).thenApply(ignored -> ResponseEntity.ok().build());
+    }
+
     @PostMapping(path = "/enableUser", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> enableUser(@RequestParam("userPoolId") String userPoolId, @RequestParam("userName") String userName) {
 
@@ -105,6 +125,13 @@ public class CognitoCommandController {
         return ResponseEntity.ok(userSub);
     }
 
+    @PostMapping(path = "/signupUserAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<String>> signupUserAsync(@RequestParam("userName") String userName, @RequestParam("clientId") String clientId, @RequestParam("password") String password) {
+
+        log.info("POST request, signupUserAsync, userName: {}, clientId: {}", userName, clientId);
+        return cognitoService.signupUserAsync(userName, clientId, password).thenApply(ResponseEntity::ok);
+    }
+
     @PostMapping(path = "/adminConfirmSignUp", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> adminConfirmSignUp(@RequestParam("userPoolId") String userPoolId, @RequestParam("userName") String userName) {
 
@@ -150,6 +177,23 @@ public class CognitoCommandController {
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping(path = "/listAllUsersInGroup", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> listAllUsersInGroup(@RequestParam("userPoolId") String userPoolId, @RequestParam("groupName") String groupName,
+                                                              @RequestParam(value = "limit", required = false) Integer limit) {
+
+        log.info("GET request, listAllUsersInGroup, userPoolId: {}, groupName: {}, limit: {}", userPoolId, groupName, limit);
+        StreamingResponseBody body = outputStream -> cognitoService.listUsersInGroup(userPoolId, groupName, limit, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(path = "/listUsersInGroupAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<Integer>> listUsersInGroupAsync(@RequestParam("userPoolId") String userPoolId, @RequestParam("groupName") String groupName) {
+
+        log.info("GET request, listUsersInGroupAsync, userPoolId: {}, groupName: {}", userPoolId, groupName);
+        return cognitoService.listUsersInGroupAsync(userPoolId, groupName).thenApply(ResponseEntity::ok);
+    }
+
     @PostMapping(path = "/removeUserFromGroup", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> removeUserFromGroup(@RequestParam("userPoolId") String userPoolId, @RequestParam("groupName") String groupName, @RequestParam("userName") String userName) {
 
@@ -167,4 +211,21 @@ public class CognitoCommandController {
 
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping(path = "/provisionUsers", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<BatchResult> provisionUsers(@RequestParam("userPoolId") String userPoolId, @RequestParam("userCount") int userCount,
+                                               @RequestParam(value = "groupCount", defaultValue = "1") int groupCount,
+                                               @RequestParam(value = "userNamePrefix", defaultValue = "load-user-") String userNamePrefix,
+                                               @RequestParam("password") String password,
+                                               @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight) {
+
+        log.info("POST request, provisionUsers, userPoolId: {}, userCount: {}, groupCount: {}, maxInFlight: {}", userPoolId, userCount, groupCount, maxInFlight);
+        try {
+            BatchResult result = cognitoService.provisionUsers(userPoolId, userNamePrefix, userCount, groupCount, password, maxInFlight);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException ex) {
+            log.error("Invalid provision users request, error: {}", ex.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -1,11 +1,18 @@
 package de.jensvogt.awsmock.springtest.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import de.jensvogt.awsmock.springtest.dto.*;
+import de.jensvogt.awsmock.springtest.service.DynamodbQueryBenchmarkService;
 import de.jensvogt.awsmock.springtest.service.DynamodbService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -15,6 +22,8 @@ public class DynamoDbCommandController {
 
     private final DynamodbService dynamodbService;
 
+    private final DynamodbQueryBenchmarkService dynamodbQueryBenchmarkService;
+
     @PostMapping(path = "/createTable", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> createTable(@RequestParam("tableName") String tableName) {
 
@@ -24,6 +33,15 @@ public class DynamoDbCommandController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping(path = "/createTableWithIndexes", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<String> createTableWithIndexes(@RequestBody TableDefinition tableDefinition) {
+
+        log.info("POST request, createTableWithIndexes, tableName: {}", tableDefinition.getTableName());
+        String tableArn = dynamodbService.createTable(tableDefinition);
+
+        return ResponseEntity.ok(tableArn);
+    }
+
     @GetMapping(path = "/describeTable", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> describeTable(@RequestParam("tableName") String tableName) {
 
@@ -42,6 +60,15 @@ public class DynamoDbCommandController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping(path = "/listAllTables", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> listAllTables(@RequestParam(value = "limit", required = false) Integer limit) {
+
+        log.info("GET request, listAllTables, limit: {}", limit);
+        StreamingResponseBody body = outputStream -> dynamodbService.listTables(limit, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @DeleteMapping(path = "/deleteTable", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> deleteTables(@RequestParam("tableName") String tableName) {
 
@@ -60,6 +87,13 @@ public class DynamoDbCommandController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping(path = "/putItemAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<Void>> putItemAsync(@RequestParam("tableName") String tableName) {
+
+        log.info("POST request, putItemAsync, tableName: {}", tableName);
+        return dynamodbService.putItemAsync(tableName).thenApply(ignored -> ResponseEntity.ok().build());
+    }
+
     @GetMapping(path = "/getItem", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> getItem(@RequestParam("tableName") String tableName) {
 
@@ -69,6 +103,13 @@ public class DynamoDbCommandController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping(path = "/getItemAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<JsonNode>> getItemAsync(@RequestParam("tableName") String tableName) {
+
+        log.info("GET request, getItemAsync, tableName: {}", tableName);
+        return dynamodbService.getItemAsync(tableName).thenApply(item -> item != null ? ResponseEntity.ok(item) : ResponseEntity.notFound().build());
+    }
+
     @GetMapping(path = "/scan", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> scan(@RequestParam("tableName") String tableName) {
 
@@ -77,4 +118,82 @@ public class DynamoDbCommandController {
 
         return ResponseEntity.ok().build();
     }
+
+    @GetMapping(path = "/scanAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<Long>> scanAsync(@RequestParam("tableName") String tableName) {
+
+        log.info("GET request, scanAsync, tableName: {}", tableName);
+        return dynamodbService.scanAsync(tableName).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping(path = "/batchWriteItems", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<BatchResult> batchWriteItems(@RequestParam("tableName") String tableName, @RequestParam("count") int count,
+                                                @RequestParam(value = "attributeCount", defaultValue = "5") int attributeCount,
+                                                @RequestParam(value = "attributeSize", defaultValue = "100") int attributeSize,
+                                                @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight) {
+
+        log.info("POST request, batchWriteItems, tableName: {}, count: {}, attributeCount: {}, attributeSize: {}", tableName, count, attributeCount, attributeSize);
+        BatchResult result = dynamodbService.batchWriteItems(tableName, count, attributeCount, attributeSize, maxInFlight);
+
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping(path = "/batchGetItems", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<BatchResult> batchGetItems(@RequestParam("tableName") String tableName, @RequestParam("count") int count,
+                                              @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight) {
+
+        log.info("GET request, batchGetItems, tableName: {}, count: {}", tableName, count);
+        BatchResult result = dynamodbService.batchGetItems(tableName, count, maxInFlight);
+
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping(path = "/parallelScan", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> parallelScan(@RequestParam("tableName") String tableName,
+                                                       @RequestParam(value = "segments", required = false) Integer segments,
+                                                       @RequestParam(value = "projection", required = false) String projection,
+                                                       @RequestParam(value = "limit", required = false) Integer limit) {
+
+        log.info("GET request, parallelScan, tableName: {}, segments: {}, projection: {}, limit: {}", tableName, segments, projection, limit);
+        StreamingResponseBody body = outputStream -> dynamodbService.parallelScan(tableName, segments, projection, limit, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping(path = "/query", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<QueryPage> query(@RequestBody QueryDefinition queryDefinition) {
+
+        log.info("POST request, query, tableName: {}, indexName: {}", queryDefinition.getTableName(), queryDefinition.getIndexName());
+        QueryPage page = dynamodbService.query(queryDefinition);
+
+        return ResponseEntity.ok(page);
+    }
+
+    @PostMapping(path = "/queryAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<QueryPage>> queryAsync(@RequestBody QueryDefinition queryDefinition) {
+
+        log.info("POST request, queryAsync, tableName: {}, indexName: {}", queryDefinition.getTableName(), queryDefinition.getIndexName());
+        return dynamodbService.queryAsync(queryDefinition).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping(path = "/queryAll", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> queryAll(@RequestBody QueryDefinition queryDefinition) {
+
+        log.info("POST request, queryAll, tableName: {}, indexName: {}", queryDefinition.getTableName(), queryDefinition.getIndexName());
+        StreamingResponseBody body = outputStream -> dynamodbService.queryAll(queryDefinition, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping(path = "/queryBenchmark", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<List<QueryBenchmarkResult>> queryBenchmark(@RequestParam("tableName") String tableName,
+                                                              @RequestParam(value = "partitionSizes", defaultValue = "10,100,1000") List<Integer> partitionSizes,
+                                                              @RequestParam(value = "iterations", defaultValue = "20") int iterations,
+                                                              @RequestParam(value = "keepTable", defaultValue = "false") boolean keepTable) {
+
+        log.info("POST request, queryBenchmark, tableName: {}, partitionSizes: {}, iterations: {}", tableName, partitionSizes, iterations);
+        List<QueryBenchmarkResult> results = dynamodbQueryBenchmarkService.queryVsScan(tableName, partitionSizes, iterations, keepTable);
+
+        return ResponseEntity.ok(results);
+    }
 }
@@ -0,0 +1,31 @@
+package de.jensvogt.awsmock.springtest.controller;
+
+import de.jensvogt.awsmock.springtest.config.ConnectionPoolMetrics;
+import de.jensvogt.awsmock.springtest.dto.ConnectionPoolStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/http", produces = MediaType.APPLICATION_JSON_VALUE)
+public class HttpClientCommandController {
+
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+
+    @GetMapping(path = "/connectionPools", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<List<ConnectionPoolStats>> connectionPools() {
+
+        log.info("GET request, connectionPools");
+        List<ConnectionPoolStats> stats = connectionPoolMetrics.stats();
+
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,70 @@
+package de.jensvogt.awsmock.springtest.controller;
+
+import de.jensvogt.awsmock.springtest.dto.LoadRequest;
+import de.jensvogt.awsmock.springtest.dto.LoadStatus;
+import de.jensvogt.awsmock.springtest.service.LoadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/load", produces = MediaType.APPLICATION_JSON_VALUE)
+public class LoadCommandController {
+
+    private final LoadService loadService;
+
+    @PostMapping(path = "/start", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<LoadStatus> start(@RequestBody LoadRequest loadRequest) {
+
+        log.info("POST request, start, loadRequest: {}", loadRequest);
+        try {
+            LoadStatus status = loadService.start(loadRequest);
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException ex) {
+            log.error("Invalid load request, error: {}", ex.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(path = "/stop", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<LoadStatus> stop(@RequestParam("runId") String runId) {
+
+        log.info("POST request, stop, runId: {}", runId);
+        LoadStatus status = loadService.stop(runId);
+
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping(path = "/run", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<LoadStatus> delete(@RequestParam("runId") String runId) {
+
+        log.info("DELETE request, delete, runId: {}", runId);
+        LoadStatus status = loadService.delete(runId);
+
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping(path = "/status", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<LoadStatus> status(@RequestParam("runId") String runId) {
+
+        log.info("GET request, status, runId: {}", runId);
+        LoadStatus status = loadService.status(runId);
+
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping(path = "/runs", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<List<LoadStatus>> runs() {
+
+        log.info("GET request, runs");
+        List<LoadStatus> status = loadService.status();
+
+        return ResponseEntity.ok(status);
+    }
+}
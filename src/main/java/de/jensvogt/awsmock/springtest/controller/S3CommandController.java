@@ -1,13 +1,16 @@
 package de.jensvogt.awsmock.springtest.controller;
 
+import de.jensvogt.awsmock.springtest.dto.*;
 import de.jensvogt.awsmock.springtest.service.S3Service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -35,8 +38,29 @@ public class S3CommandController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(path = "/listAllBuckets", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> listAllBuckets(@RequestParam(value = "prefix", required = false) String prefix,
+                                                         @RequestParam(value = "limit", required = false) Integer limit) {
+
+        log.info("GET request, listAllBuckets, prefix: {}, limit: {}", prefix, limit);
+        StreamingResponseBody body = outputStream -> s3Service.listBuckets(prefix, limit, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(path = "/listAllObjects", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> listAllObjects(@RequestParam("bucket") String bucket,
+                                                         @RequestParam(value = "prefix", required = false) String prefix,
+                                                         @RequestParam(value = "limit", required = false) Integer limit) {
+
+        log.info("GET request, listAllObjects, bucket: {}, prefix: {}, limit: {}", bucket, prefix, limit);
+        StreamingResponseBody body = outputStream -> s3Service.listObjects(bucket, prefix, limit, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PutMapping(path = "/putObject", consumes = MediaType.APPLICATION_JSON_VALUE)
-    ResponseEntity<String> putObject(@RequestParam("bucketName") String bucketName, @RequestParam("key") String key, @RequestParam("size") Long size) throws IOException {
+    ResponseEntity<String> putObject(@RequestParam("bucketName") String bucketName, @RequestParam("key") String key, @RequestParam("size") Long size) {
 
         log.info("PUT request, putObject, bucketName: {}, key: {}, size: {}", bucketName, key, size);
         s3Service.putObject(bucketName, key, size);
@@ -53,6 +77,17 @@ public class S3CommandController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping(path = "/getObjectStream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<TransferResult> getObjectStream(@RequestParam("bucketName") String bucketName, @RequestParam("key") String key,
+                                                   @RequestParam(value = "bufferSize", required = false) Integer bufferSize,
+                                                   @RequestParam(value = "sink", defaultValue = "DISCARD") StreamSink sink) throws IOException {
+
+        log.info("GET request, getObjectStream, bucketName: {}, key: {}, bufferSize: {}, sink: {}", bucketName, key, bufferSize, sink);
+        TransferResult result = s3Service.getObjectStream(bucketName, key, bufferSize, sink);
+
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping(path = "/getHead", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<Long> getHead(@RequestParam("bucket") String bucket, @RequestParam("key") String key) {
 
@@ -80,22 +115,65 @@ public class S3CommandController {
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping(path = "/listAllObjectVersions", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> listAllObjectVersions(@RequestParam("bucket") String bucket,
+                                                                @RequestParam(value = "prefix", required = false) String prefix,
+                                                                @RequestParam(value = "limit", required = false) Integer limit) {
+
+        log.info("GET request, listAllObjectVersions, bucket: {}, prefix: {}, limit: {}", bucket, prefix, limit);
+        StreamingResponseBody body = outputStream -> s3Service.listObjectVersions(bucket, prefix, limit, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping(path = "/uploadObject", consumes = MediaType.APPLICATION_JSON_VALUE)
-    ResponseEntity<String> uploadObject(@RequestParam("bucketName") String bucketName, @RequestParam("key") String key, @RequestParam("size") int size) throws IOException {
+    ResponseEntity<TransferResult> uploadObject(@RequestParam("bucketName") String bucketName, @RequestParam("key") String key, @RequestParam("size") int size,
+                                                @RequestParam(value = "fromFile", defaultValue = "false") boolean fromFile,
+                                                @RequestParam(value = "targetThroughputGbps", required = false) Double targetThroughputGbps,
+                                                @RequestParam(value = "minimumPartSizeMb", required = false) Long minimumPartSizeMb,
+                                                @RequestParam(value = "maxConcurrency", required = false) Integer maxConcurrency) {
 
-        log.info("GET request, uploadObject, bucketName: {}, key: {}, size: {}", bucketName, key, size);
-        s3Service.uploadObject(bucketName, key, size);
+        log.info("GET request, uploadObject, bucketName: {}, key: {}, size: {}, fromFile: {}", bucketName, key, size, fromFile);
+        TransferResult result = s3Service.uploadObject(bucketName, key, size, fromFile, new TransferSettings(targetThroughputGbps, minimumPartSizeMb, maxConcurrency));
 
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(result);
     }
 
     @GetMapping(path = "/downloadObject", consumes = MediaType.APPLICATION_JSON_VALUE)
-    ResponseEntity<String> downloadObject(@RequestParam("bucketName") String bucketName, @RequestParam("key") String key) throws IOException {
+    ResponseEntity<TransferResult> downloadObject(@RequestParam("bucketName") String bucketName, @RequestParam("key") String key,
+                                                  @RequestParam(value = "targetThroughputGbps", required = false) Double targetThroughputGbps,
+                                                  @RequestParam(value = "minimumPartSizeMb", required = false) Long minimumPartSizeMb,
+                                                  @RequestParam(value = "maxConcurrency", required = false) Integer maxConcurrency) throws IOException {
 
         log.info("GET request, downloadObject, bucketName: {}, key: {}", bucketName, key);
-        s3Service.downloadObject(bucketName, key);
+        TransferResult result = s3Service.downloadObject(bucketName, key, new TransferSettings(targetThroughputGbps, minimumPartSizeMb, maxConcurrency));
 
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping(path = "/uploadDirectory", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<DirectoryTransferResult> uploadDirectory(@RequestParam("bucketName") String bucketName, @RequestParam("prefix") String prefix,
+                                                            @RequestParam("files") int files, @RequestParam("fileSizeKb") long fileSizeKb,
+                                                            @RequestParam(value = "targetThroughputGbps", required = false) Double targetThroughputGbps,
+                                                            @RequestParam(value = "minimumPartSizeMb", required = false) Long minimumPartSizeMb,
+                                                            @RequestParam(value = "maxConcurrency", required = false) Integer maxConcurrency) throws IOException {
+
+        log.info("GET request, uploadDirectory, bucketName: {}, prefix: {}, files: {}, fileSizeKb: {}", bucketName, prefix, files, fileSizeKb);
+        DirectoryTransferResult result = s3Service.uploadDirectory(bucketName, prefix, files, fileSizeKb, new TransferSettings(targetThroughputGbps, minimumPartSizeMb, maxConcurrency));
+
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping(path = "/downloadDirectory", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<DirectoryTransferResult> downloadDirectory(@RequestParam("bucketName") String bucketName, @RequestParam("prefix") String prefix,
+                                                              @RequestParam(value = "targetThroughputGbps", required = false) Double targetThroughputGbps,
+                                                              @RequestParam(value = "minimumPartSizeMb", required = false) Long minimumPartSizeMb,
+                                                              @RequestParam(value = "maxConcurrency", required = false) Integer maxConcurrency) throws IOException {
+
+        log.info("GET request, downloadDirectory, bucketName: {}, prefix: {}", bucketName, prefix);
+        DirectoryTransferResult result = s3Service.downloadDirectory(bucketName, prefix, new TransferSettings(targetThroughputGbps, minimumPartSizeMb, maxConcurrency));
+
+        return ResponseEntity.ok(result);
     }
 
     @PostMapping(path = "/copyObject", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -127,11 +205,12 @@ public class S3CommandController {
     }
 
     @DeleteMapping(path = "/deleteObjects", consumes = MediaType.APPLICATION_JSON_VALUE)
-    ResponseEntity<Void> deleteObjects(@RequestParam("bucketName") String bucketName, @RequestParam("key1") String key1, @RequestParam("key2") String key2) {
+    ResponseEntity<BatchResult> deleteObjects(@RequestParam("bucketName") String bucketName, @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight,
+                                              @RequestBody List<String> keys) {
 
-        log.info("DELETE request, deleteObjects, bucketName: {}, key1: {}, key2: {}", bucketName, key1, key2);
-        s3Service.deleteObjects(bucketName, key1, key2);
+        log.info("DELETE request, deleteObjects, bucketName: {}, count: {}", bucketName, keys.size());
+        BatchResult result = s3Service.deleteObjects(bucketName, keys, maxInFlight);
 
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(result);
     }
 }
@@ -1,11 +1,20 @@
 package de.jensvogt.awsmock.springtest.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import de.jensvogt.awsmock.springtest.dto.BatchResult;
+import de.jensvogt.awsmock.springtest.dto.FanOutResult;
+import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import de.jensvogt.awsmock.springtest.service.SNSFanOutService;
 import de.jensvogt.awsmock.springtest.service.SNSService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -15,6 +24,8 @@ public class SNSCommandController {
 
     private final SNSService snsService;
 
+    private final SNSFanOutService snsFanOutService;
+
     @PostMapping(path = "/createTopic", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> createTopic(@RequestParam("name") String name) {
 
@@ -33,6 +44,15 @@ public class SNSCommandController {
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping(path = "/listAllTopics", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> listAllTopics(@RequestParam(value = "limit", required = false) Integer limit) {
+
+        log.info("GET request, listAllTopics, limit: {}", limit);
+        StreamingResponseBody body = outputStream -> snsService.listTopics(limit, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping(path = "/subscribe", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> subscribe(@RequestParam("topicArn") String topicArn, @RequestParam("queueUrl") String queueUrl, @RequestParam("protocol") String protocol) {
 
@@ -51,6 +71,47 @@ public class SNSCommandController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping(path = "/publish", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<BatchResult> publish(@RequestParam("topicArn") String topicArn, @RequestParam(value = "count", defaultValue = "1") int count,
+                                        @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight,
+                                        @RequestBody TestMessage testMessage) throws JsonProcessingException {
+
+        log.info("POST request, publish, topicArn: {}, count: {}, maxInFlight: {}", topicArn, count, maxInFlight);
+        BatchResult result = snsService.publish(topicArn, testMessage, count, maxInFlight);
+
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(path = "/publishAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<String>> publishAsync(@RequestParam("topicArn") String topicArn, @RequestBody TestMessage testMessage) throws JsonProcessingException {
+
+        log.info("POST request, publishAsync, topicArn: {}", topicArn);
+        return snsService.publishAsync(topicArn, testMessage).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping(path = "/publishBatch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<BatchResult> publishBatch(@RequestParam("topicArn") String topicArn, @RequestParam("count") int count,
+                                             @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight,
+                                             @RequestBody TestMessage testMessage) throws JsonProcessingException {
+
+        log.info("POST request, publishBatch, topicArn: {}, count: {}, maxInFlight: {}", topicArn, count, maxInFlight);
+        BatchResult result = snsService.publishBatch(topicArn, testMessage, count, maxInFlight);
+
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(path = "/fanOut", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<FanOutResult> fanOut(@RequestParam("topicArn") String topicArn, @RequestParam("count") int count,
+                                        @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight,
+                                        @RequestParam(value = "timeoutSeconds", required = false) Integer timeoutSeconds,
+                                        @RequestBody List<String> queueUrls) {
+
+        log.info("POST request, fanOut, topicArn: {}, queueUrls: {}, count: {}", topicArn, queueUrls, count);
+        FanOutResult result = snsFanOutService.fanOut(topicArn, queueUrls, count, maxInFlight, timeoutSeconds);
+
+        return ResponseEntity.ok(result);
+    }
+
     @DeleteMapping(path = "/deleteTopic", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> deleteTopic(@RequestParam("topicArn") String topicArn) {
 
@@ -1,17 +1,26 @@
 package de.jensvogt.awsmock.springtest.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import de.jensvogt.awsmock.springtest.dto.BatchResult;
+import de.jensvogt.awsmock.springtest.dto.CacheStats;
+import de.jensvogt.awsmock.springtest.dto.ConsumerStatus;
+import de.jensvogt.awsmock.springtest.dto.ContainerStatus;
 import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import de.jensvogt.awsmock.springtest.service.SQSConsumerService;
+import de.jensvogt.awsmock.springtest.service.SQSContainerService;
 import de.jensvogt.awsmock.springtest.service.SQSService;
+import io.awspring.cloud.sqs.listener.BackPressureMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -21,6 +30,10 @@ public class SQSCommandController {
 
     private final SQSService sqsService;
 
+    private final SQSConsumerService sqsConsumerService;
+
+    private final SQSContainerService sqsContainerService;
+
     @PostMapping(path = "/createQueue", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> createQueue(@RequestParam("queueName") String queueName) {
 
@@ -76,6 +89,25 @@ public class SQSCommandController {
         return ResponseEntity.ok(queueUrl);
     }
 
+    @GetMapping(path = "/listAllQueues", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> listAllQueues(@RequestParam(value = "prefix", required = false) String prefix,
+                                                        @RequestParam(value = "limit", required = false) Integer limit) {
+
+        log.info("GET request, listAllQueues, prefix: {}, limit: {}", prefix, limit);
+        StreamingResponseBody body = outputStream -> sqsService.listQueues(prefix, limit, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(path = "/queueUrlCache", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<CacheStats> queueUrlCache() {
+
+        log.info("GET request, queueUrlCache");
+        CacheStats stats = sqsService.queueUrlCacheStats();
+
+        return ResponseEntity.ok(stats);
+    }
+
     @GetMapping(path = "/purgeQueue", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> purgeQueue(@RequestParam("queueUrl") String queueUrl) {
 
@@ -94,6 +126,25 @@ public class SQSCommandController {
         return ResponseEntity.ok(testMessage);
     }
 
+    @PostMapping(path = "/sendManySqsTemplate", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<BatchResult> sendManyViaSqsTemplate(@RequestParam("queueUrl") String queueUrl, @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight,
+                                                       @RequestBody List<TestMessage> testMessages) {
+
+        log.info("POST request, sendManySqsTemplate, queueUrl: {} count: {}", queueUrl, testMessages.size());
+        BatchResult result = sqsService.sendManySqsTemplate(queueUrl, testMessages, maxInFlight);
+
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(path = "/sendManySqsTemplateAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<BatchResult>> sendManyViaSqsTemplateAsync(@RequestParam("queueUrl") String queueUrl,
+                                                                               @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight,
+                                                                               @RequestBody List<TestMessage> testMessages) {
+
+        log.info("POST request, sendManySqsTemplateAsync, queueUrl: {} count: {}", queueUrl, testMessages.size());
+        return sqsService.sendManySqsTemplateAsync(queueUrl, testMessages, maxInFlight).thenApply(ResponseEntity::ok);
+    }
+
     @PostMapping(path = "/sendMessage", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<String> sendMessage(@RequestParam("queueUrl") String queueUrl, @RequestBody TestMessage testMessage) throws JsonProcessingException {
 
@@ -103,6 +154,38 @@ public class SQSCommandController {
         return ResponseEntity.ok(messageId);
     }
 
+    @PostMapping(path = "/sendMessageAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<String>> sendMessageAsync(@RequestParam("queueUrl") String queueUrl, @RequestBody TestMessage testMessage) {
+
+        log.info("POST request, sendMessageAsync, queueUrl: {} testMessage: {}", queueUrl, testMessage);
+        return sqsService.sendMessageAsync(queueUrl, testMessage).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping(path = "/sendMessageBatch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<BatchResult> sendMessageBatch(@RequestParam("queueUrl") String queueUrl, @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight,
+                                                 @RequestBody List<TestMessage> testMessages) {
+
+        log.info("POST request, sendMessageBatch, queueUrl: {} count: {}", queueUrl, testMessages.size());
+        BatchResult result = sqsService.sendMessageBatch(queueUrl, testMessages, maxInFlight);
+
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(path = "/sendMessageBatchTemplate", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<BatchResult> sendMessageBatchTemplate(@RequestParam("queueUrl") String queueUrl, @RequestParam("count") int count,
+                                                         @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight,
+                                                         @RequestBody TestMessage testMessage) throws JsonProcessingException {
+
+        log.info("POST request, sendMessageBatchTemplate, queueUrl: {} count: {} testMessage: {}", queueUrl, count, testMessage);
+        try {
+            BatchResult result = sqsService.sendMessageBatch(queueUrl, testMessage, count, maxInFlight);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException ex) {
+            log.error("Invalid send message batch request, error: {}", ex.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping(path = "/sendMessageAttributes", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<Integer> sendMessageAttributes(@RequestParam("queueUrl") String queueUrl, @RequestBody TestMessage testMessage) throws JsonProcessingException {
 
@@ -121,6 +204,87 @@ public class SQSCommandController {
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping(path = "/receiveMessagesAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<List<TestMessage>>> receiveMessagesAsync(@RequestParam("queueUrl") String queueUrl, @RequestParam("maxMessages") int maxMessages,
+                                                                             @RequestParam("maxWaitTime") int maxWaitTime) {
+
+        log.info("GET request, receiveMessagesAsync, queueUrl: {}", queueUrl);
+        return sqsService.receiveMessagesAsync(queueUrl, maxMessages, maxWaitTime).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping(path = "/consumer/start", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<ConsumerStatus> startConsumer(@RequestParam("queueUrl") String queueUrl, @RequestParam(value = "pollers", required = false) Integer pollers,
+                                                 @RequestParam(value = "handlerThreads", required = false) Integer handlerThreads,
+                                                 @RequestParam(value = "ackBatchSize", required = false) Integer ackBatchSize,
+                                                 @RequestParam(value = "ackFlushIntervalMs", required = false) Long ackFlushIntervalMs) {
+
+        log.info("POST request, startConsumer, queueUrl: {}, pollers: {}, handlerThreads: {}", queueUrl, pollers, handlerThreads);
+        try {
+            ConsumerStatus status = sqsConsumerService.start(queueUrl, pollers, handlerThreads, ackBatchSize, ackFlushIntervalMs);
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException ex) {
+            log.error("Invalid consumer request, error: {}", ex.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(path = "/consumer/stop", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<ConsumerStatus> stopConsumer(@RequestParam("queueUrl") String queueUrl) {
+
+        log.info("POST request, stopConsumer, queueUrl: {}", queueUrl);
+        ConsumerStatus status = sqsConsumerService.stop(queueUrl);
+
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping(path = "/consumer/status", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<List<ConsumerStatus>> consumerStatus() {
+
+        log.info("GET request, consumerStatus");
+        List<ConsumerStatus> status = sqsConsumerService.status();
+
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping(path = "/container/start", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<ContainerStatus> startContainer(@RequestParam("queueUrl") String queueUrl,
+                                                   @RequestParam(value = "maxConcurrentMessages", required = false) Integer maxConcurrentMessages,
+                                                   @RequestParam(value = "maxMessagesPerPoll", required = false) Integer maxMessagesPerPoll,
+                                                   @RequestParam(value = "pollTimeoutSeconds", required = false) Long pollTimeoutSeconds,
+                                                   @RequestParam(value = "backPressureMode", required = false) BackPressureMode backPressureMode,
+                                                   @RequestParam(value = "acknowledgementIntervalMs", required = false) Long acknowledgementIntervalMs,
+                                                   @RequestParam(value = "acknowledgementThreshold", required = false) Integer acknowledgementThreshold) {
+
+        log.info("POST request, startContainer, queueUrl: {}, maxConcurrentMessages: {}, maxMessagesPerPoll: {}, backPressureMode: {}",
+                queueUrl, maxConcurrentMessages, maxMessagesPerPoll, backPressureMode);
+        try {
+            ContainerStatus status = sqsContainerService.start(queueUrl, maxConcurrentMessages, maxMessagesPerPoll, pollTimeoutSeconds, backPressureMode,
+                    acknowledgementIntervalMs, acknowledgementThreshold);
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException ex) {
+            log.error("Invalid container request, error: {}", ex.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(path = "/container/stop", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<ContainerStatus> stopContainer(@RequestParam("queueUrl") String queueUrl) {
+
+        log.info("POST request, stopContainer, queueUrl: {}", queueUrl);
+        ContainerStatus status = sqsContainerService.stop(queueUrl);
+
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping(path = "/container/status", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<List<ContainerStatus>> containerStatus() {
+
+        log.info("GET request, containerStatus");
+        List<ContainerStatus> status = sqsContainerService.status();
+
+        return ResponseEntity.ok(status);
+    }
+
     @DeleteMapping(path = "/deleteMessage", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<Void> deleteMessage(@RequestParam("queueUrl") String queueUrl, @RequestParam("receiptHandle") String receiptHandle) {
 
@@ -130,14 +294,21 @@ public class SQSCommandController {
         return ResponseEntity.ok().build();
     }
 
+    @DeleteMapping(path = "/deleteMessageAsync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<Void>> deleteMessageAsync(@RequestParam("queueUrl") String queueUrl, @RequestParam("receiptHandle") String receiptHandle) {
+
+        log.info("DELETE request, deleteMessageAsync, receiptHandle: {}", receiptHandle);
+        return sqsService.deleteMessageAsync(queueUrl, receiptHandle).thenApply(ignored -> ResponseEntity.ok().build());
+    }
+
     @DeleteMapping(path = "/deleteMessageBatch", consumes = MediaType.APPLICATION_JSON_VALUE)
-    ResponseEntity<Void> deleteMessageBatch(@RequestParam("queueUrl") String queueUrl, @RequestParam("receiptHandle1") String receiptHandle1
-            , @RequestParam("receiptHandle2") String receiptHandle2) {
+    ResponseEntity<BatchResult> deleteMessageBatch(@RequestParam("queueUrl") String queueUrl, @RequestParam(value = "maxInFlight", required = false) Integer maxInFlight,
+                                                   @RequestBody List<String> receiptHandles) {
 
-        log.info("DELETE request, deleteMessageBatch, queueUrl: {}", queueUrl);
-        sqsService.deleteMessageBatch(queueUrl, receiptHandle1, receiptHandle2);
+        log.info("DELETE request, deleteMessageBatch, queueUrl: {}, count: {}", queueUrl, receiptHandles.size());
+        BatchResult result = sqsService.deleteMessageBatch(queueUrl, receiptHandles, maxInFlight);
 
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(result);
     }
 
     @GetMapping(path = "/deleteQueue", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -0,0 +1,29 @@
+package de.jensvogt.awsmock.springtest.controller;
+
+import de.jensvogt.awsmock.springtest.config.StartupTimer;
+import de.jensvogt.awsmock.springtest.dto.StartupStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/startup", produces = MediaType.APPLICATION_JSON_VALUE)
+public class StartupCommandController {
+
+    private final StartupTimer startupTimer;
+
+    @GetMapping(path = "/stats", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<StartupStats> stats() {
+
+        log.info("GET request, startupStats");
+        StartupStats stats = startupTimer.stats();
+
+        return ResponseEntity.ok(stats);
+    }
+}
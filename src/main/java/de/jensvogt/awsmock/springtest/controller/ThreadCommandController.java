@@ -0,0 +1,51 @@
+package de.jensvogt.awsmock.springtest.controller;
+
+import de.jensvogt.awsmock.springtest.config.VirtualThreadPinningMonitor;
+import de.jensvogt.awsmock.springtest.dto.PinnedThreadEvent;
+import de.jensvogt.awsmock.springtest.dto.ThreadStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/threads", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ThreadCommandController {
+
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    @GetMapping(path = "/stats", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<ThreadStats> stats() {
+
+        log.info("GET request, threadStats");
+        ThreadStats stats = pinningMonitor.stats();
+
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping(path = "/pinned", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<List<PinnedThreadEvent>> pinned() {
+
+        log.info("GET request, pinnedThreads");
+        List<PinnedThreadEvent> events = pinningMonitor.events();
+
+        return ResponseEntity.ok(events);
+    }
+
+    @DeleteMapping(path = "/pinned", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<Void> resetPinned() {
+
+        log.info("DELETE request, pinnedThreads");
+        pinningMonitor.reset();
+
+        return ResponseEntity.ok().build();
+    }
+}
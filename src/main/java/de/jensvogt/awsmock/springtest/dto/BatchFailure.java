@@ -0,0 +1,62 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchFailure {
+
+    private String id;
+
+    private String code;
+
+    private String message;
+
+    private boolean senderFault;
+
+    public static BatchFailure of(software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry entry) {
+        return BatchFailure.builder().id(entry.id()).code(entry.code()).message(entry.message()).senderFault(Boolean.TRUE.equals(entry.senderFault())).build();
+    }
+
+    public static BatchFailure of(software.amazon.awssdk.services.sns.model.BatchResultErrorEntry entry) {
+        return BatchFailure.builder().id(entry.id()).code(entry.code()).message(entry.message()).senderFault(Boolean.TRUE.equals(entry.senderFault())).build();
+    }
+
+    /**
+     * Failure of a single entry. The code is the AWS error code for service errors, the exception class otherwise.
+     */
+    public static BatchFailure of(String id, Throwable throwable) {
+        Throwable cause = cause(throwable);
+        String code = cause instanceof AwsServiceException ex && ex.awsErrorDetails() != null && ex.awsErrorDetails().errorCode() != null
+                ? ex.awsErrorDetails().errorCode() : cause.getClass().getSimpleName();
+        return BatchFailure.builder().id(id).code(code).message(cause.getMessage()).senderFault(cause instanceof AwsServiceException ex && ex.statusCode() < 500).build();
+    }
+
+    /**
+     * Failures of the entries first (inclusive) to last (exclusive), whose ids are the entry indexes.
+     */
+    public static List<BatchFailure> range(int first, int last, Throwable throwable) {
+        List<BatchFailure> failures = new ArrayList<>(last - first);
+        for (int i = first; i < last; i++) {
+            failures.add(of(String.valueOf(i), throwable));
+        }
+        return failures;
+    }
+
+    /**
+     * Unwraps the CompletionException a dependent future completes with.
+     */
+    public static Throwable cause(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+}
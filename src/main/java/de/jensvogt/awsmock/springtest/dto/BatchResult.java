@@ -0,0 +1,47 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult {
+
+    private int total;
+
+    private int successful;
+
+    private int failed;
+
+    private int batches;
+
+    private long durationMs;
+
+    private double perSecond;
+
+    private long retries;
+
+    private long throttled;
+
+    private List<BatchFailure> failures;
+
+    public static BatchResult of(int total, int batches, long startNanos, List<BatchFailure> failures) {
+        long durationNanos = Math.max(System.nanoTime() - startNanos, 1);
+        int successful = total - failures.size();
+        return BatchResult.builder()
+                .total(total)
+                .successful(successful)
+                .failed(failures.size())
+                .batches(batches)
+                .durationMs(durationNanos / 1_000_000)
+                .perSecond(successful * 1e9 / durationNanos)
+                .failures(failures)
+                .build();
+    }
+}
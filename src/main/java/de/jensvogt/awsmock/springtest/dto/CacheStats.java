@@ -0,0 +1,27 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+
+    private int size;
+
+    private int maxSize;
+
+    private long ttlSeconds;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    private double hitRatio;
+}
@@ -0,0 +1,29 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionPoolStats {
+
+    private String httpClient;
+
+    private int maxConcurrency;
+
+    private int leasedConcurrency;
+
+    private int availableConcurrency;
+
+    private int pendingConcurrencyAcquires;
+
+    private long requests;
+
+    private double acquireAvgMs;
+
+    private double acquireMaxMs;
+}
@@ -0,0 +1,41 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumerStatus {
+
+    private String queueUrl;
+
+    private boolean running;
+
+    private int pollers;
+
+    private int handlerThreads;
+
+    private long receiveRequests;
+
+    private long emptyReceives;
+
+    private long received;
+
+    private long processed;
+
+    private long handlerErrors;
+
+    private long deleted;
+
+    private long deleteFailures;
+
+    private int pendingAcknowledgements;
+
+    private long uptimeMs;
+
+    private double perSecond;
+}
@@ -0,0 +1,47 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContainerStatus {
+
+    private String queueUrl;
+
+    private boolean running;
+
+    private int maxConcurrentMessages;
+
+    private int maxMessagesPerPoll;
+
+    private long pollTimeoutSeconds;
+
+    private String backPressureMode;
+
+    private long acknowledgementIntervalMs;
+
+    private int acknowledgementThreshold;
+
+    private long received;
+
+    private long processed;
+
+    private long handlerErrors;
+
+    private long acknowledged;
+
+    private long acknowledgementFailures;
+
+    private long uptimeMs;
+
+    private double perSecond;
+
+    private LatencySummary processingTime;
+
+    private LatencySummary queueTime;
+}
@@ -0,0 +1,31 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryTransferResult {
+
+    private String bucket;
+
+    private String prefix;
+
+    private int files;
+
+    private int failed;
+
+    private long bytes;
+
+    private long durationMs;
+
+    private double bytesPerSecond;
+
+    private List<BatchFailure> failures;
+}
@@ -0,0 +1,19 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FanOutMessage {
+
+    private String runId;
+
+    private int sequence;
+
+    private long sentAtMicros;
+}
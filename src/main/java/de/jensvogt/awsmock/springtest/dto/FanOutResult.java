@@ -0,0 +1,23 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FanOutResult {
+
+    private String runId;
+
+    private String topicArn;
+
+    private BatchResult publish;
+
+    private List<SubscriberStats> subscribers;
+}
@@ -0,0 +1,26 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexDefinition {
+
+    private String indexName;
+
+    /**
+     * Partition key of a global index, local indexes use the partition key of the table.
+     */
+    private KeyDefinition hashKey;
+
+    private KeyDefinition rangeKey;
+
+    @Builder.Default
+    private ProjectionType projectionType = ProjectionType.ALL;
+}
@@ -0,0 +1,19 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeyDefinition {
+
+    private String name;
+
+    @Builder.Default
+    private ScalarAttributeType type = ScalarAttributeType.S;
+}
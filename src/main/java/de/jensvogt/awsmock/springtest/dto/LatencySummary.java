@@ -0,0 +1,40 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencySummary {
+
+    private double meanMs;
+
+    private double p50Ms;
+
+    private double p90Ms;
+
+    private double p99Ms;
+
+    private double p999Ms;
+
+    private double maxMs;
+
+    /**
+     * Summarizes a histogram with values in microseconds.
+     */
+    public static LatencySummary of(Histogram histogram) {
+        return LatencySummary.builder()
+                .meanMs(histogram.getMean() / 1000)
+                .p50Ms(histogram.getValueAtPercentile(50) / 1000.0)
+                .p90Ms(histogram.getValueAtPercentile(90) / 1000.0)
+                .p99Ms(histogram.getValueAtPercentile(99) / 1000.0)
+                .p999Ms(histogram.getValueAtPercentile(99.9) / 1000.0)
+                .maxMs(histogram.getMaxValue() / 1000.0)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One line of a streamed listing. Only the fields the listed resource has are set, empty fields are not serialized.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListEntry {
+
+    private String id;
+
+    private String name;
+
+    private Long size;
+
+    private Instant lastModified;
+
+    private String eTag;
+
+    private String versionId;
+
+    private Boolean latest;
+
+    private Boolean deleteMarker;
+
+    private String status;
+}
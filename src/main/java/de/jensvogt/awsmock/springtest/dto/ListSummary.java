@@ -0,0 +1,38 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListSummary {
+
+    private String resource;
+
+    private long pages;
+
+    private long items;
+
+    /**
+     * The listing stopped at the limit, further items may exist.
+     */
+    private boolean truncated;
+
+    /**
+     * Set when a page could not be fetched, the items before it have been written.
+     */
+    private String error;
+
+    private long durationMs;
+
+    private double itemsPerSecond;
+
+    /**
+     * Time to fetch a page, including the unmarshalling of the response.
+     */
+    private LatencySummary pageTime;
+}
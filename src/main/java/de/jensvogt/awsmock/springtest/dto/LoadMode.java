@@ -0,0 +1,14 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+public enum LoadMode {
+
+    /**
+     * Operations are started at the target rate, independent of how long the previous operations take.
+     */
+    OPEN,
+
+    /**
+     * A fixed number of workers run one operation after the other.
+     */
+    CLOSED
+}
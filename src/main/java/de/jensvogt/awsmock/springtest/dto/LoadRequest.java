@@ -0,0 +1,71 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadRequest {
+
+    private List<LoadScenario> scenarios;
+
+    @Builder.Default
+    private LoadMode mode = LoadMode.OPEN;
+
+    @Builder.Default
+    private int durationSeconds = 60;
+
+    /**
+     * Open loop: target rate, reached after the ramp-up.
+     */
+    @Builder.Default
+    private double ratePerSecond = 100;
+
+    /**
+     * Open loop: rate at the start of the ramp-up.
+     */
+    private double startRatePerSecond;
+
+    private int rampUpSeconds;
+
+    /**
+     * Closed loop: number of workers. Open loop: maximal number of outstanding operations.
+     */
+    @Builder.Default
+    private int concurrency = 16;
+
+    private String queueName;
+
+    private String topicArn;
+
+    private String bucketName;
+
+    private String tableName;
+
+    @Builder.Default
+    private long objectSizeMb = 1;
+
+    @Builder.Default
+    private int objectKeys = 100;
+
+    private String userPoolId;
+
+    private String clientId;
+
+    /**
+     * Cognito scenarios: users userNamePrefix + 0..userCount-1, as created by the user provisioning.
+     */
+    @Builder.Default
+    private String userNamePrefix = "load-user-";
+
+    @Builder.Default
+    private int userCount = 100;
+
+    private String password;
+}
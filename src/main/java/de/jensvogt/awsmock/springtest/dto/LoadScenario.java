@@ -0,0 +1,5 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+public enum LoadScenario {
+    SQS_SEND, SQS_RECEIVE, SQS_DELETE, SNS_PUBLISH, S3_PUT, S3_GET, DYNAMODB_PUT, DYNAMODB_GET, DYNAMODB_SCAN, COGNITO_ADMIN_AUTH, COGNITO_AUTH, COGNITO_REFRESH
+}
@@ -0,0 +1,5 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+public enum LoadState {
+    RUNNING, COMPLETED, STOPPED
+}
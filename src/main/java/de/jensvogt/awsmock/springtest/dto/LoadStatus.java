@@ -0,0 +1,33 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadStatus {
+
+    private String runId;
+
+    private LoadState state;
+
+    private LoadMode mode;
+
+    private double targetRatePerSecond;
+
+    private double currentRatePerSecond;
+
+    private int concurrency;
+
+    private long started;
+
+    private long elapsedMs;
+
+    private List<OperationStats> operations;
+}
@@ -0,0 +1,36 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperationStats {
+
+    private LoadScenario scenario;
+
+    private long count;
+
+    private long errors;
+
+    private double perSecond;
+
+    /**
+     * Successful operations per second, for the Cognito scenarios the token issuance rate.
+     */
+    private double succeededPerSecond;
+
+    /**
+     * Measured from the intended start, includes the time an operation waited for the load generator.
+     */
+    private LatencySummary responseTime;
+
+    /**
+     * Measured from the actual start of the operation.
+     */
+    private LatencySummary serviceTime;
+}
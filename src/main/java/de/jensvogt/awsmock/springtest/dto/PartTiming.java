@@ -0,0 +1,21 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartTiming {
+
+    private int partNumber;
+
+    private long bytes;
+
+    private long elapsedMs;
+
+    private long durationMs;
+}
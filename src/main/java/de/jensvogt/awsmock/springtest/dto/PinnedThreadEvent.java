@@ -0,0 +1,24 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PinnedThreadEvent {
+
+    private Instant startTime;
+
+    private double durationMs;
+
+    private String threadName;
+
+    private List<String> stackTrace;
+}
@@ -0,0 +1,38 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryBenchmarkResult {
+
+    private int partitionSize;
+
+    private int iterations;
+
+    /**
+     * Query on the table partition key.
+     */
+    private LatencySummary query;
+
+    /**
+     * Query on the partition key of the global secondary index.
+     */
+    private LatencySummary indexQuery;
+
+    /**
+     * Scan of the whole table with a filter on the partition key.
+     */
+    private LatencySummary scan;
+
+    private long scanScannedCount;
+
+    /**
+     * Items of the partition which could not be written, the latencies are not comparable unless this is 0.
+     */
+    private int seedFailures;
+}
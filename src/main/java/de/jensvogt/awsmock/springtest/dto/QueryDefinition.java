@@ -0,0 +1,46 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryDefinition {
+
+    private String tableName;
+
+    private String indexName;
+
+    private String keyConditionExpression;
+
+    private String filterExpression;
+
+    private String projectionExpression;
+
+    private Map<String, String> expressionAttributeNames;
+
+    /**
+     * Plain JSON values, strings are sent as S, numbers as N, booleans as BOOL.
+     */
+    private Map<String, JsonNode> expressionAttributeValues;
+
+    /**
+     * Maximal number of items evaluated per page.
+     */
+    private Integer limit;
+
+    @Builder.Default
+    private boolean scanIndexForward = true;
+
+    /**
+     * Last evaluated key of the previous page.
+     */
+    private Map<String, JsonNode> exclusiveStartKey;
+}
@@ -0,0 +1,29 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryPage {
+
+    private List<JsonNode> items;
+
+    private int count;
+
+    private int scannedCount;
+
+    private long durationMs;
+
+    /**
+     * Start key of the next page, empty on the last page.
+     */
+    private JsonNode lastEvaluatedKey;
+}
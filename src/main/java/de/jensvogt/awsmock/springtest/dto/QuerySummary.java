@@ -0,0 +1,26 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuerySummary {
+
+    private String tableName;
+
+    private String indexName;
+
+    private long pages;
+
+    private long items;
+
+    private long scannedCount;
+
+    private long durationMs;
+
+    private double itemsPerSecond;
+}
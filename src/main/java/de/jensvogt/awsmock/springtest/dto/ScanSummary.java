@@ -0,0 +1,29 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanSummary {
+
+    private String tableName;
+
+    private int segments;
+
+    private int failedSegments;
+
+    private long pages;
+
+    private long items;
+
+    private long scannedCount;
+
+    private long durationMs;
+
+    private double itemsPerSecond;
+}
@@ -0,0 +1,33 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StartupStats {
+
+    private boolean lazyInitialization;
+
+    private boolean aot;
+
+    private String sharedArchiveFile;
+
+    private long applicationStartupMs;
+
+    private long readyMs;
+
+    private long loadedClassesAtReady;
+
+    private String firstRequestPath;
+
+    private long firstRequestMs;
+
+    private long firstResponseMs;
+
+    private long loadedClasses;
+}
@@ -0,0 +1,8 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+public enum StreamSink {
+
+    DISCARD,
+
+    FILE
+}
@@ -0,0 +1,28 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriberStats {
+
+    private String queueUrl;
+
+    private long received;
+
+    private long missing;
+
+    private long duplicates;
+
+    private double perSecond;
+
+    /**
+     * Time from publishing to receiving the message from the queue.
+     */
+    private LatencySummary latency;
+}
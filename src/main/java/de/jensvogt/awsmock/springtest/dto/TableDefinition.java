@@ -0,0 +1,35 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableDefinition {
+
+    private String tableName;
+
+    private KeyDefinition hashKey;
+
+    private KeyDefinition rangeKey;
+
+    private List<IndexDefinition> globalSecondaryIndexes;
+
+    private List<IndexDefinition> localSecondaryIndexes;
+
+    @Builder.Default
+    private BillingMode billingMode = BillingMode.PAY_PER_REQUEST;
+
+    @Builder.Default
+    private long readCapacityUnits = 5;
+
+    @Builder.Default
+    private long writeCapacityUnits = 5;
+}
@@ -0,0 +1,25 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadStats {
+
+    private boolean virtualThreads;
+
+    private boolean pinningMonitor;
+
+    private int platformThreads;
+
+    private int peakPlatformThreads;
+
+    private long pinnedEvents;
+
+    private double pinnedMaxMs;
+}
@@ -0,0 +1,31 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResult {
+
+    private String bucket;
+
+    private String key;
+
+    private long bytes;
+
+    private long durationMs;
+
+    private long timeToFirstByteMs;
+
+    private double bytesPerSecond;
+
+    private long partSize;
+
+    private List<PartTiming> parts;
+}
@@ -0,0 +1,26 @@
+package de.jensvogt.awsmock.springtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * S3 CRT client knobs for a transfer. Unset values fall back to the configured defaults.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferSettings {
+
+    private Double targetThroughputGbps;
+
+    private Long minimumPartSizeMb;
+
+    private Integer maxConcurrency;
+
+    public boolean isDefault() {
+        return targetThroughputGbps == null && minimumPartSizeMb == null && maxConcurrency == null;
+    }
+}
@@ -0,0 +1,100 @@
+package de.jensvogt.awsmock.springtest.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput mode for the per-request logging. Enabled INFO events of the loggers below the prefix are counted per
+ * message pattern instead of being written, only the first and then every sampleRate-th event of a pattern passes.
+ * The counts are written as one line per pattern and report interval. WARN and ERROR events always pass. The decision
+ * is made before the message is formatted, so a dropped event costs a map lookup and an increment.
+ */
+public class AggregatingTurboFilter extends TurboFilter {
+
+    private static final String REPORT_LOGGER = AggregatingTurboFilter.class.getName();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private String loggerPrefix = "de.jensvogt";
+    private long sampleRate = 1000;
+    private long reportIntervalSeconds = 10;
+    private ScheduledExecutorService reporter;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+
+        if (level != Level.INFO || format == null || !Level.INFO.isGreaterOrEqual(logger.getEffectiveLevel())
+                || !logger.getName().startsWith(loggerPrefix) || logger.getName().equals(REPORT_LOGGER)) {
+            return FilterReply.NEUTRAL;
+        }
+        Counter counter = counters.get(format);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(format, f -> new Counter(logger.getName()));
+        }
+        long count = counter.count.incrementAndGet();
+        return sampleRate > 0 && (count - 1) % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (reportIntervalSeconds > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("log-aggregation-reporter").daemon().factory());
+            reporter.scheduleAtFixedRate(this::report, reportIntervalSeconds, reportIntervalSeconds, TimeUnit.SECONDS);
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (reporter != null) {
+            reporter.shutdown();
+        }
+        report();
+        super.stop();
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setSampleRate(long sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public void setReportIntervalSeconds(long reportIntervalSeconds) {
+        this.reportIntervalSeconds = reportIntervalSeconds;
+    }
+
+    private void report() {
+        Logger reportLogger = ((LoggerContext) getContext()).getLogger(REPORT_LOGGER);
+        counters.forEach((format, counter) -> {
+            long total = counter.count.get();
+            long count = total - counter.reported;
+            if (count > 0) {
+                counter.reported = total;
+                reportLogger.info("Aggregated log events, logger: {}, pattern: {}, count: {}, total: {}", counter.loggerName, format, count, total);
+            }
+        });
+    }
+
+    private static class Counter {
+
+        private final String loggerName;
+        private final AtomicLong count = new AtomicLong();
+        private long reported;
+
+        Counter(String loggerName) {
+            this.loggerName = loggerName;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package de.jensvogt.awsmock.springtest.payload;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes a {@link RandomPayload} in chunks on demand. Every subscription starts from the beginning of the payload,
+ * so the body can be replayed by SDK retries.
+ */
+class PayloadAsyncRequestBody implements AsyncRequestBody {
+
+    private final long seed;
+    private final long size;
+    private final int chunkSize;
+
+    PayloadAsyncRequestBody(long seed, long size, int chunkSize) {
+        this.seed = seed;
+        this.size = size;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Optional<Long> contentLength() {
+        return Optional.of(size);
+    }
+
+    @Override
+    public String contentType() {
+        return PayloadGenerator.CONTENT_TYPE;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+        subscriber.onSubscribe(new PayloadSubscription(subscriber, new RandomPayload(seed, size)));
+    }
+
+    private class PayloadSubscription implements Subscription {
+
+        private final Subscriber<? super ByteBuffer> subscriber;
+        private final RandomPayload payload;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile boolean cancelled;
+        private boolean done;
+
+        PayloadSubscription(Subscriber<? super ByteBuffer> subscriber, RandomPayload payload) {
+            this.subscriber = subscriber;
+            this.payload = payload;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("Demand must be positive, n: " + n));
+                return;
+            }
+            demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void drain() {
+            if (work.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!cancelled && !done && demand.get() > 0 && payload.remaining() > 0) {
+                    ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(chunkSize, payload.remaining()));
+                    payload.fill(chunk);
+                    chunk.flip();
+                    demand.decrementAndGet();
+                    subscriber.onNext(chunk);
+                }
+                if (!cancelled && !done && payload.remaining() == 0) {
+                    done = true;
+                    subscriber.onComplete();
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
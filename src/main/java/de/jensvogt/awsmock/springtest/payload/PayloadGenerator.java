@@ -0,0 +1,114 @@
+package de.jensvogt.awsmock.springtest.payload;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.sync.RequestBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Produces deterministic random payloads for uploads, either as request bodies that generate the bytes while they are
+ * sent, or as files written through a {@link FileChannel} with one direct buffer per file, which is reused for all
+ * chunks of the file.
+ */
+@Slf4j
+@Component
+public class PayloadGenerator {
+
+    static final String CONTENT_TYPE = "text/plain";
+
+    private final Map<String, CompletableFuture<Path>> templateFiles = new ConcurrentHashMap<>();
+
+    @Value("${de.jensvogt.awsmock.payload.seed}")
+    private long seed;
+
+    @Value("${de.jensvogt.awsmock.payload.chunk-size}")
+    private int chunkSize;
+
+    private Path templateDirectory;
+
+    public long defaultSeed() {
+        return seed;
+    }
+
+    public RequestBody requestBody(long size, long seed) {
+        return RequestBody.fromContentProvider(() -> new PayloadInputStream(new RandomPayload(seed, size)), size, CONTENT_TYPE);
+    }
+
+    public AsyncRequestBody asyncRequestBody(long size, long seed) {
+        return new PayloadAsyncRequestBody(seed, size, chunkSize);
+    }
+
+    /**
+     * Returns a file with the given payload, which is generated once and then reused. The file must not be modified or
+     * deleted by the caller. The first caller writes the file outside the map, later callers wait for it.
+     */
+    public Path templateFile(long size, long seed) {
+        String key = size + "-" + seed;
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> templateFile = templateFiles.putIfAbsent(key, created);
+        if (templateFile == null) {
+            templateFile = created;
+            try {
+                created.complete(writeFile(templateDirectory().resolve("payload-" + key + ".txt"), size, seed));
+            } catch (IOException e) {
+                templateFiles.remove(key, created);
+                created.completeExceptionally(new UncheckedIOException(e));
+            } catch (RuntimeException e) {
+                templateFiles.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        }
+        try {
+            return templateFile.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public Path writeFile(Path destination, long size, long seed) throws IOException {
+
+        RandomPayload payload = new RandomPayload(seed, size);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(chunkSize);
+        try (FileChannel channel = FileChannel.open(destination, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (payload.remaining() > 0) {
+                buffer.clear();
+                payload.fill(buffer);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+        log.debug("Payload file written, destination: {}, size: {}", destination, size);
+        return destination;
+    }
+
+    @PreDestroy
+    public void deleteTemplateFiles() {
+        if (templateDirectory != null) {
+            FileUtils.deleteQuietly(templateDirectory.toFile());
+        }
+    }
+
+    private synchronized Path templateDirectory() throws IOException {
+        if (templateDirectory == null) {
+            templateDirectory = Files.createTempDirectory("awsmock-payload");
+        }
+        return templateDirectory;
+    }
+}
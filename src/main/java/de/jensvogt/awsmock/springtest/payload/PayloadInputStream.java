@@ -0,0 +1,28 @@
+package de.jensvogt.awsmock.springtest.payload;
+
+import java.io.InputStream;
+
+class PayloadInputStream extends InputStream {
+
+    private final RandomPayload payload;
+
+    PayloadInputStream(RandomPayload payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public int read() {
+        byte[] single = new byte[1];
+        return payload.fill(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        return payload.fill(b, off, len);
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(payload.remaining(), Integer.MAX_VALUE);
+    }
+}
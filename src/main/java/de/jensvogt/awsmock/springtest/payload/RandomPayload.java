@@ -0,0 +1,105 @@
+package de.jensvogt.awsmock.springtest.payload;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Deterministic pseudo-random alphanumeric payload of a fixed size. The byte at a given position only depends on the
+ * seed and the position, so the content does not change with the buffer sizes used to read it. Each 8-byte block is
+ * derived from a SplitMix64 hash of the seed and the block index.
+ */
+public final class RandomPayload {
+
+    private static final byte[] ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TABLE = new byte[256];
+
+    static {
+        for (int i = 0; i < TABLE.length; i++) {
+            TABLE[i] = ALPHANUMERIC[i % ALPHANUMERIC.length];
+        }
+    }
+
+    private final long seed;
+    private final long size;
+    private long position;
+
+    public RandomPayload(long seed, long size) {
+        this.seed = seed;
+        this.size = size;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long remaining() {
+        return size - position;
+    }
+
+    /**
+     * Fills the array range with the next payload bytes.
+     *
+     * @return number of bytes written, -1 when the payload is exhausted
+     */
+    public int fill(byte[] target, int offset, int length) {
+        int count = (int) Math.min(length, remaining());
+        if (count <= 0) {
+            return length == 0 ? 0 : -1;
+        }
+        int end = offset + count;
+        int i = offset;
+        while (i < end) {
+            long block = position >>> 3;
+            int shift = (int) (position & 7) << 3;
+            long word = mix(seed + block);
+            do {
+                target[i++] = TABLE[(int) (word >>> shift) & 0xFF];
+                position++;
+                shift += 8;
+            } while (shift < 64 && i < end);
+        }
+        return count;
+    }
+
+    /**
+     * Fills the remaining space of the buffer with the next payload bytes, or as much of it as the payload has left.
+     * Aligned blocks are written with a single {@code putLong}, which is what makes direct buffers cheap to fill.
+     *
+     * @return number of bytes written, -1 when the payload is exhausted
+     */
+    public int fill(ByteBuffer target) {
+        int count = (int) Math.min(target.remaining(), remaining());
+        if (count <= 0) {
+            return target.hasRemaining() ? -1 : 0;
+        }
+        long end = position + count;
+        while (position < end && (position & 7) != 0) {
+            target.put(byteAt(position++));
+        }
+        while (end - position >= 8) {
+            long word = mix(seed + (position >>> 3));
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 8) {
+                value = (value << 8) | (TABLE[(int) (word >>> shift) & 0xFF] & 0xFFL);
+            }
+            target.putLong(target.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+            position += 8;
+        }
+        while (position < end) {
+            target.put(byteAt(position++));
+        }
+        return count;
+    }
+
+    private byte byteAt(long pos) {
+        return TABLE[(int) (mix(seed + (pos >>> 3)) >>> ((pos & 7) << 3)) & 0xFF];
+    }
+
+    private static long mix(long value) {
+        long z = value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,18 +1,45 @@
 package de.jensvogt.awsmock.springtest.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.jensvogt.awsmock.springtest.dto.BatchFailure;
+import de.jensvogt.awsmock.springtest.dto.BatchResult;
+import de.jensvogt.awsmock.springtest.dto.ListEntry;
+import de.jensvogt.awsmock.springtest.dto.ListSummary;
+import de.jensvogt.awsmock.springtest.util.InFlightWindow;
+import de.jensvogt.awsmock.springtest.util.PaginatedListing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CognitoService {
 
+    private static final int MAX_LIST_PAGE_SIZE = 60;
+
+    @Lazy
     private final CognitoIdentityProviderClient cognitoIdentityProviderClient;
 
+    @Lazy
+    private final CognitoIdentityProviderAsyncClient cognitoIdentityProviderAsyncClient;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${de.jensvogt.awsmock.cognito.batch.max-in-flight}")
+    private int maxInFlight;
+
     public void createUserPool(String userPoolName) {
 
         CreateUserPoolResponse response = cognitoIdentityProviderClient.createUserPool(CreateUserPoolRequest.builder().poolName(userPoolName).build());
@@ -33,6 +60,21 @@ public class CognitoService {
         }
     }
 
+    /**
+     * Pages through ListUserPools with the maximal page size of 60.
+     */
+    public ListSummary listUserPools(Integer limit, OutputStream outputStream) throws IOException {
+
+        ListSummary summary = PaginatedListing.write("userPools", cognitoIdentityProviderClient.listUserPoolsPaginator(ListUserPoolsRequest.builder().maxResults(MAX_LIST_PAGE_SIZE).build()),
+                ListUserPoolsResponse::userPools,
+                userPool -> ListEntry.builder().id(userPool.id()).name(userPool.name()).lastModified(userPool.lastModifiedDate()).status(userPool.statusAsString()).build(),
+                limit, objectMapper, outputStream);
+
+        log.info("List user pools, pages: {}, items: {}, durationMs: {}, itemsPerSecond: {}",
+                summary.getPages(), summary.getItems(), summary.getDurationMs(), summary.getItemsPerSecond());
+        return summary;
+    }
+
     public void describeUserPool(String userPoolId) {
 
         DescribeUserPoolResponse response = cognitoIdentityProviderClient.describeUserPool(DescribeUserPoolRequest.builder().userPoolId(userPoolId).build());
@@ -50,7 +92,9 @@ public class CognitoService {
                 .idToken(TimeUnitsType.DAYS)
                 .refreshToken(TimeUnitsType.DAYS)
                 .build();
-        CreateUserPoolClientResponse response = cognitoIdentityProviderClient.createUserPoolClient(CreateUserPoolClientRequest.builder().userPoolId(userPoolId).clientName(clientName).accessTokenValidity(1).tokenValidityUnits(tokenValidityUnitsType).build());
+        CreateUserPoolClientResponse response = cognitoIdentityProviderClient.createUserPoolClient(CreateUserPoolClientRequest.builder().userPoolId(userPoolId).clientName(clientName).accessTokenValidity(1).tokenValidityUnits(tokenValidityUnitsType)
+                .explicitAuthFlows(ExplicitAuthFlowsType.ALLOW_ADMIN_USER_PASSWORD_AUTH, ExplicitAuthFlowsType.ALLOW_USER_PASSWORD_AUTH, ExplicitAuthFlowsType.ALLOW_REFRESH_TOKEN_AUTH)
+                .build());
         if (response.sdkHttpResponse().isSuccessful()) {
             log.info("User pool client created, userPoolId: {}, clientName: {}", userPoolId, clientName);
         } else {
@@ -88,6 +132,18 @@ public class CognitoService {
         }
     }
 
+    public CompletableFuture<Void> createUserAsync(String userPoolId, String userName) {
+
+        return cognitoIdentityProviderAsyncClient.adminCreateUser(AdminCreateUserRequest.builder().userPoolId(userPoolId).username(userName).build())
+                .thenAccept(response -> {
+                    if (response.sdkHttpResponse().isSuccessful()) {
+                        log.info("User created async, userPoolId: {}, userName: {}", userPoolId, userName);
+                    } else {
+                        log.error("Could not create user async, userPoolId: {}, userName: {}", userPoolId, userName);
+                    }
+                });
+    }
+
     public void enableUser(String userPoolId, String userName) {
 
         AdminEnableUserResponse response = cognitoIdentityProviderClient.adminEnableUser(AdminEnableUserRequest.builder().userPoolId(userPoolId).username(userName).build());
@@ -120,6 +176,19 @@ public class CognitoService {
         return "";
     }
 
+    public CompletableFuture<String> signupUserAsync(String userName, String clientId, String password) {
+
+        return cognitoIdentityProviderAsyncClient.signUp(SignUpRequest.builder().username(userName).clientId(clientId).password(password).build())
+                .thenApply(response -> {
+                    if (!response.sdkHttpResponse().isSuccessful()) {
+                        log.error("Could not sign up async, userName: {}, clientId: {}", userName, clientId);
+                        return "";
+                    }
+                    log.info("User sign up async, userName: {}, clientId: {}", userName, clientId);
+                    return response.userSub();
+                });
+    }
+
     public void adminConfirmSignUp(String userPoolId, String userName) {
 
         AdminConfirmSignUpResponse response = cognitoIdentityProviderClient.adminConfirmSignUp(AdminConfirmSignUpRequest.builder().userPoolId(userPoolId).username(userName).build());
@@ -172,6 +241,34 @@ public class CognitoService {
         return 0;
     }
 
+    /**
+     * Pages through ListUsersInGroup with the maximal page size of 60.
+     */
+    public ListSummary listUsersInGroup(String userPoolId, String groupName, Integer limit, OutputStream outputStream) throws IOException {
+
+        ListUsersInGroupRequest request = ListUsersInGroupRequest.builder().userPoolId(userPoolId).groupName(groupName).limit(MAX_LIST_PAGE_SIZE).build();
+        ListSummary summary = PaginatedListing.write("usersInGroup:" + groupName, cognitoIdentityProviderClient.listUsersInGroupPaginator(request), ListUsersInGroupResponse::users,
+                user -> ListEntry.builder().name(user.username()).lastModified(user.userLastModifiedDate()).status(user.userStatusAsString()).build(),
+                limit, objectMapper, outputStream);
+
+        log.info("List users in group, userPoolId: {}, groupName: {}, pages: {}, items: {}, durationMs: {}, itemsPerSecond: {}",
+                userPoolId, groupName, summary.getPages(), summary.getItems(), summary.getDurationMs(), summary.getItemsPerSecond());
+        return summary;
+    }
+
+    public CompletableFuture<Integer> listUsersInGroupAsync(String userPoolId, String groupName) {
+
+        return cognitoIdentityProviderAsyncClient.listUsersInGroup(ListUsersInGroupRequest.builder().userPoolId(userPoolId).groupName(groupName).limit(10).build())
+                .thenApply(response -> {
+                    if (!response.sdkHttpResponse().isSuccessful()) {
+                        log.error("Could not list users in group async, userPoolId: {}, groupName: {}", userPoolId, groupName);
+                        return 0;
+                    }
+                    log.info("List users in group async, userPoolId: {}, groupName: {}", userPoolId, groupName);
+                    return response.users().size();
+                });
+    }
+
     public void removeUserFromGroup(String userPoolId, String groupName, String userName) {
 
         AdminRemoveUserFromGroupResponse response = cognitoIdentityProviderClient.adminRemoveUserFromGroup(AdminRemoveUserFromGroupRequest.builder().userPoolId(userPoolId).groupName(groupName).username(userName).build());
@@ -191,4 +288,104 @@ public class CognitoService {
             log.error("Could not delete user group, userPoolId: {}, groupName: {}", userPoolId, groupName);
         }
     }
+
+    /**
+     * Creates groupCount groups and userCount users named userNamePrefix + index. Every user gets the permanent
+     * password, so it can log in without a challenge, and is added to group index % groupCount. Users are provisioned
+     * with the async client, keeping up to maxInFlight users in flight.
+     */
+    public BatchResult provisionUsers(String userPoolId, String userNamePrefix, int userCount, int groupCount, String password, Integer maxInFlight) {
+
+        log.info("Received provision users request, userPoolId: {}, userCount: {}, groupCount: {}", userPoolId, userCount, groupCount);
+        if (userCount < 0 || groupCount < 0) {
+            throw new IllegalArgumentException("User and group count must not be negative");
+        }
+
+        long start = System.nanoTime();
+        for (int g = 0; g < groupCount; g++) {
+            try {
+                cognitoIdentityProviderClient.createGroup(CreateGroupRequest.builder().userPoolId(userPoolId).groupName(groupName(userNamePrefix, g)).build());
+            } catch (GroupExistsException ex) {
+                log.debug("User group exists, userPoolId: {}, groupName: {}", userPoolId, groupName(userNamePrefix, g));
+            }
+        }
+        List<List<BatchFailure>> results = InFlightWindow.run(userCount, index -> {
+            String userName = userNamePrefix + index;
+            return cognitoIdentityProviderAsyncClient.adminCreateUser(AdminCreateUserRequest.builder()
+                            .userPoolId(userPoolId)
+                            .username(userName)
+                            .messageAction(MessageActionType.SUPPRESS)
+                            .build())
+                    .thenCompose(response -> cognitoIdentityProviderAsyncClient.adminSetUserPassword(AdminSetUserPasswordRequest.builder()
+                            .userPoolId(userPoolId)
+                            .username(userName)
+                            .password(password)
+                            .permanent(true)
+                            .build()))
+                    .thenCompose(response -> groupCount > 0
+                            ? cognitoIdentityProviderAsyncClient.adminAddUserToGroup(AdminAddUserToGroupRequest.builder()
+                            .userPoolId(userPoolId)
+                            .groupName(groupName(userNamePrefix, index % groupCount))
+                            .username(userName)
+                            .build())
+                            : CompletableFuture.completedFuture(null))
+                    .handle((response, throwable) -> throwable == null ? List.<BatchFailure>of() : List.of(toBatchFailure(userName, throwable)));
+        }, InFlightWindow.maxInFlight(maxInFlight, this.maxInFlight));
+        BatchResult batchResult = BatchResult.of(userCount, userCount, start, results.stream().flatMap(List::stream).toList());
+
+        log.info("Users provisioned, userPoolId: {}, successful: {}, failed: {}, durationMs: {}, perSecond: {}",
+                userPoolId, batchResult.getSuccessful(), batchResult.getFailed(), batchResult.getDurationMs(), batchResult.getPerSecond());
+        return batchResult;
+    }
+
+    public AuthenticationResultType adminInitiateAuth(String userPoolId, String clientId, String userName, String password) {
+
+        AdminInitiateAuthResponse response = cognitoIdentityProviderClient.adminInitiateAuth(AdminInitiateAuthRequest.builder()
+                .userPoolId(userPoolId)
+                .clientId(clientId)
+                .authFlow(AuthFlowType.ADMIN_USER_PASSWORD_AUTH)
+                .authParameters(Map.of("USERNAME", userName, "PASSWORD", password))
+                .build());
+        return authenticationResult(response.authenticationResult(), response.challengeNameAsString(), userName);
+    }
+
+    public AuthenticationResultType initiateAuth(String clientId, String userName, String password) {
+
+        InitiateAuthResponse response = cognitoIdentityProviderClient.initiateAuth(InitiateAuthRequest.builder()
+                .clientId(clientId)
+                .authFlow(AuthFlowType.USER_PASSWORD_AUTH)
+                .authParameters(Map.of("USERNAME", userName, "PASSWORD", password))
+                .build());
+        return authenticationResult(response.authenticationResult(), response.challengeNameAsString(), userName);
+    }
+
+    /**
+     * Refresh token flow, the response carries new access and id tokens but no new refresh token.
+     */
+    public AuthenticationResultType refreshTokens(String clientId, String refreshToken) {
+
+        InitiateAuthResponse response = cognitoIdentityProviderClient.initiateAuth(InitiateAuthRequest.builder()
+                .clientId(clientId)
+                .authFlow(AuthFlowType.REFRESH_TOKEN_AUTH)
+                .authParameters(Map.of("REFRESH_TOKEN", refreshToken))
+                .build());
+        return authenticationResult(response.authenticationResult(), response.challengeNameAsString(), null);
+    }
+
+    private static AuthenticationResultType authenticationResult(AuthenticationResultType result, String challengeName, String userName) {
+        if (result == null || result.accessToken() == null) {
+            log.error("No tokens issued, userName: {}, challenge: {}", userName, challengeName);
+            throw new IllegalStateException("No tokens issued, challenge: " + challengeName);
+        }
+        return result;
+    }
+
+    private static String groupName(String userNamePrefix, int index) {
+        return userNamePrefix + "group-" + index;
+    }
+
+    private static BatchFailure toBatchFailure(String userName, Throwable throwable) {
+        log.error("Could not provision user, userName: {}, error: {}", userName, BatchFailure.cause(throwable).getMessage());
+        return BatchFailure.of(userName, throwable);
+    }
 }
@@ -0,0 +1,120 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import de.jensvogt.awsmock.springtest.dto.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Compares query and scan latency on a table with a composite key and a global secondary index. Every partition size
+ * gets its own partition, so the query reads exactly that many items while the scan has to evaluate the whole table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DynamodbQueryBenchmarkService {
+
+    private static final String INDEX_NAME = "gsi-benchmark";
+
+    private static final String PAYLOAD = "x".repeat(100);
+
+    private final DynamodbService dynamodbService;
+
+    @Lazy
+    private final DynamoDbClient dynamoDbClient;
+
+    public List<QueryBenchmarkResult> queryVsScan(String tableName, List<Integer> partitionSizes, int iterations, boolean keepTable) {
+
+        log.info("Received query benchmark request, tableName: {}, partitionSizes: {}, iterations: {}", tableName, partitionSizes, iterations);
+
+        dynamodbService.createTable(TableDefinition.builder()
+                .tableName(tableName)
+                .hashKey(KeyDefinition.builder().name("pk").type(ScalarAttributeType.S).build())
+                .rangeKey(KeyDefinition.builder().name("sk").type(ScalarAttributeType.N).build())
+                .globalSecondaryIndexes(List.of(IndexDefinition.builder()
+                        .indexName(INDEX_NAME)
+                        .hashKey(KeyDefinition.builder().name("gpk").type(ScalarAttributeType.S).build())
+                        .rangeKey(KeyDefinition.builder().name("sk").type(ScalarAttributeType.N).build())
+                        .build()))
+                .build());
+        dynamoDbClient.waiter().waitUntilTableExists(request -> request.tableName(tableName));
+
+        try {
+            Map<Integer, Integer> seedFailures = new HashMap<>();
+            for (int partitionSize : partitionSizes) {
+                BatchResult seeded = dynamodbService.batchWriteItems(tableName, partitionSize, index -> Map.of(
+                        "pk", AttributeValue.fromS("p-" + partitionSize),
+                        "sk", AttributeValue.fromN(String.valueOf(index)),
+                        "gpk", AttributeValue.fromS("g-" + partitionSize),
+                        "payload", AttributeValue.fromS(PAYLOAD)), null);
+                if (seeded.getFailed() > 0) {
+                    log.error("Query benchmark partition incomplete, partitionSize: {}, failed: {}", partitionSize, seeded.getFailed());
+                    seedFailures.merge(partitionSize, seeded.getFailed(), Integer::sum);
+                }
+            }
+
+            List<QueryBenchmarkResult> results = new ArrayList<>(partitionSizes.size());
+            for (int partitionSize : partitionSizes) {
+                QueryRequest query = QueryRequest.builder()
+                        .tableName(tableName)
+                        .keyConditionExpression("pk = :pk")
+                        .expressionAttributeValues(Map.of(":pk", AttributeValue.fromS("p-" + partitionSize)))
+                        .build();
+                QueryRequest indexQuery = QueryRequest.builder()
+                        .tableName(tableName)
+                        .indexName(INDEX_NAME)
+                        .keyConditionExpression("gpk = :gpk")
+                        .expressionAttributeValues(Map.of(":gpk", AttributeValue.fromS("g-" + partitionSize)))
+                        .build();
+                ScanRequest scan = ScanRequest.builder()
+                        .tableName(tableName)
+                        .filterExpression("pk = :pk")
+                        .expressionAttributeValues(Map.of(":pk", AttributeValue.fromS("p-" + partitionSize)))
+                        .build();
+
+                long[] scanScannedCount = new long[1];
+                QueryBenchmarkResult result = QueryBenchmarkResult.builder()
+                        .partitionSize(partitionSize)
+                        .iterations(iterations)
+                        .query(measure(iterations, () -> dynamoDbClient.queryPaginator(query).stream().mapToLong(page -> page.items().size()).sum()))
+                        .indexQuery(measure(iterations, () -> dynamoDbClient.queryPaginator(indexQuery).stream().mapToLong(page -> page.items().size()).sum()))
+                        .scan(measure(iterations, () -> scanScannedCount[0] = dynamoDbClient.scanPaginator(scan).stream().mapToLong(page -> page.scannedCount() != null ? page.scannedCount() : 0).sum()))
+                        .scanScannedCount(scanScannedCount[0])
+                        .seedFailures(seedFailures.getOrDefault(partitionSize, 0))
+                        .build();
+                log.info("Query benchmark, partitionSize: {}, query p50Ms: {}, indexQuery p50Ms: {}, scan p50Ms: {}",
+                        partitionSize, result.getQuery().getP50Ms(), result.getIndexQuery().getP50Ms(), result.getScan().getP50Ms());
+                results.add(result);
+            }
+            return results;
+        } finally {
+            if (!keepTable) {
+                dynamodbService.deleteTable(tableName);
+            }
+        }
+    }
+
+    /**
+     * Runs the operation once to warm up and then records the given number of iterations in microseconds.
+     */
+    private static LatencySummary measure(int iterations, LongSupplier operation) {
+        operation.getAsLong();
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            operation.getAsLong();
+            histogram.recordValue((System.nanoTime() - start) / 1000);
+        }
+        return LatencySummary.of(histogram);
+    }
+}
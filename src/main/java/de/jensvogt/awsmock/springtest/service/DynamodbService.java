@@ -1,32 +1,81 @@
 package de.jensvogt.awsmock.springtest.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.jensvogt.awsmock.springtest.dto.*;
+import de.jensvogt.awsmock.springtest.payload.PayloadGenerator;
+import de.jensvogt.awsmock.springtest.payload.RandomPayload;
+import de.jensvogt.awsmock.springtest.util.AttributeValueJson;
+import de.jensvogt.awsmock.springtest.util.InFlightWindow;
+import de.jensvogt.awsmock.springtest.util.PaginatedListing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DynamodbService {
 
+    private static final String KEY_ATTRIBUTE = "orgaNr";
+
+    private static final int MAX_WRITE_BATCH_SIZE = 25;
+
+    private static final int MAX_GET_BATCH_SIZE = 100;
+
+    @Lazy
     private final DynamoDbClient dynamoDbClient;
 
-    public void createTable(String tableName) {
+    @Lazy
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
 
-        AttributeDefinition attributeDefinition = AttributeDefinition.builder().attributeName("orgaNr").attributeType(ScalarAttributeType.N).build();
-        KeySchemaElement keySchemaElement = KeySchemaElement.builder().attributeName("orgaNr").keyType(KeyType.HASH).build();
+    private final PayloadGenerator payloadGenerator;
 
-        CreateTableResponse response = dynamoDbClient.createTable(CreateTableRequest.builder()
-                .tableName(tableName)
-                .attributeDefinitions(attributeDefinition)
-                .keySchema(keySchemaElement)
-                .provisionedThroughput(ProvisionedThroughput.builder().readCapacityUnits(5L).writeCapacityUnits(5L).build())
-                .build());
+    private final ObjectMapper objectMapper;
+
+    private final RequestTemplates requestTemplates;
+
+    @Value("${de.jensvogt.awsmock.dynamodb.batch.max-in-flight}")
+    private int maxInFlight;
+
+    @Value("${de.jensvogt.awsmock.dynamodb.batch.max-retries}")
+    private int maxRetries;
+
+    @Value("${de.jensvogt.awsmock.dynamodb.batch.backoff-base-ms}")
+    private long backoffBaseMs;
+
+    @Value("${de.jensvogt.awsmock.dynamodb.batch.backoff-max-ms}")
+    private long backoffMaxMs;
+
+    @Value("${de.jensvogt.awsmock.dynamodb.scan.segments}")
+    private int scanSegments;
+
+    public void createTable(String tableName) {
+
+        CreateTableResponse response = dynamoDbClient.createTable(requestTemplates.createTable(tableName));
 
         if (response.sdkHttpResponse().isSuccessful()) {
             log.info("Table created, tableName: {}", tableName);
@@ -35,6 +84,56 @@ public class DynamodbService {
         }
     }
 
+    public String createTable(TableDefinition tableDefinition) {
+
+        log.info("Received create table request, tableDefinition: {}", tableDefinition);
+
+        Map<String, AttributeDefinition> attributeDefinitions = new LinkedHashMap<>();
+        List<KeySchemaElement> keySchema = keySchema(tableDefinition.getHashKey(), tableDefinition.getRangeKey(), attributeDefinitions);
+        boolean provisioned = tableDefinition.getBillingMode() == BillingMode.PROVISIONED;
+        ProvisionedThroughput throughput = ProvisionedThroughput.builder()
+                .readCapacityUnits(tableDefinition.getReadCapacityUnits())
+                .writeCapacityUnits(tableDefinition.getWriteCapacityUnits())
+                .build();
+
+        CreateTableRequest.Builder builder = CreateTableRequest.builder()
+                .tableName(tableDefinition.getTableName())
+                .keySchema(keySchema)
+                .billingMode(tableDefinition.getBillingMode());
+        if (provisioned) {
+            builder.provisionedThroughput(throughput);
+        }
+        if (tableDefinition.getGlobalSecondaryIndexes() != null && !tableDefinition.getGlobalSecondaryIndexes().isEmpty()) {
+            builder.globalSecondaryIndexes(tableDefinition.getGlobalSecondaryIndexes().stream()
+                    .map(index -> GlobalSecondaryIndex.builder()
+                            .indexName(index.getIndexName())
+                            .keySchema(keySchema(index.getHashKey(), index.getRangeKey(), attributeDefinitions))
+                            .projection(Projection.builder().projectionType(index.getProjectionType()).build())
+                            .provisionedThroughput(provisioned ? throughput : null)
+                            .build())
+                    .toList());
+        }
+        if (tableDefinition.getLocalSecondaryIndexes() != null && !tableDefinition.getLocalSecondaryIndexes().isEmpty()) {
+            builder.localSecondaryIndexes(tableDefinition.getLocalSecondaryIndexes().stream()
+                    .map(index -> LocalSecondaryIndex.builder()
+                            .indexName(index.getIndexName())
+                            .keySchema(keySchema(tableDefinition.getHashKey(), index.getRangeKey(), attributeDefinitions))
+                            .projection(Projection.builder().projectionType(index.getProjectionType()).build())
+                            .build())
+                    .toList());
+        }
+        builder.attributeDefinitions(attributeDefinitions.values());
+
+        CreateTableResponse response = dynamoDbClient.createTable(builder.build());
+        if (response.sdkHttpResponse().isSuccessful()) {
+            log.info("Table created, tableName: {}, tableArn: {}", tableDefinition.getTableName(), response.tableDescription().tableArn());
+            return response.tableDescription().tableArn();
+        } else {
+            log.error("Could not create table, name: {}", tableDefinition.getTableName());
+        }
+        return "";
+    }
+
     public void listTables(int limit) {
 
         ListTablesResponse response = dynamoDbClient.listTables(ListTablesRequest.builder().limit(limit).build());
@@ -46,6 +145,19 @@ public class DynamodbService {
         }
     }
 
+    /**
+     * Pages through ListTables, 100 table names per page.
+     */
+    public ListSummary listTables(Integer limit, OutputStream outputStream) throws IOException {
+
+        ListSummary summary = PaginatedListing.write("tables", dynamoDbClient.listTablesPaginator(ListTablesRequest.builder().build()), ListTablesResponse::tableNames,
+                tableName -> ListEntry.builder().name(tableName).build(), limit, objectMapper, outputStream);
+
+        log.info("List tables, pages: {}, items: {}, durationMs: {}, itemsPerSecond: {}",
+                summary.getPages(), summary.getItems(), summary.getDurationMs(), summary.getItemsPerSecond());
+        return summary;
+    }
+
     public void describeTable(String tableName) {
 
         DescribeTableResponse response = dynamoDbClient.describeTable(DescribeTableRequest.builder().tableName(tableName).build());
@@ -70,9 +182,7 @@ public class DynamodbService {
 
     public void putItem(String tableName) {
 
-        Map<String, AttributeValue> item = new HashMap<>();
-        item.put("orgaNr", AttributeValue.builder().n("1").build());
-        PutItemResponse response = dynamoDbClient.putItem(PutItemRequest.builder().tableName(tableName).item(item).build());
+        PutItemResponse response = dynamoDbClient.putItem(requestTemplates.putItem(tableName));
 
         if (response.sdkHttpResponse().isSuccessful()) {
             log.info("Put item tableName: {}", tableName);
@@ -81,11 +191,21 @@ public class DynamodbService {
         }
     }
 
+    public CompletableFuture<Void> putItemAsync(String tableName) {
+
+        return dynamoDbAsyncClient.putItem(requestTemplates.putItem(tableName))
+                .thenAccept(response -> {
+                    if (response.sdkHttpResponse().isSuccessful()) {
+                        log.info("Put item async, tableName: {}", tableName);
+                    } else {
+                        log.error("Could not put item async, tableName: {}", tableName);
+                    }
+                });
+    }
+
     public void getItem(String tableName) {
 
-        Map<String, AttributeValue> key = new HashMap<>();
-        key.put("orgaNr", AttributeValue.builder().n("1").build());
-        GetItemResponse response = dynamoDbClient.getItem(GetItemRequest.builder().tableName(tableName).key(key).build());
+        GetItemResponse response = dynamoDbClient.getItem(requestTemplates.getItem(tableName));
 
         if (response.sdkHttpResponse().isSuccessful()) {
             log.info("Get item tableName: {}", tableName);
@@ -95,6 +215,19 @@ public class DynamodbService {
         assert (response.item().get("orgaNr").n().equalsIgnoreCase("1"));
     }
 
+    public CompletableFuture<JsonNode> getItemAsync(String tableName) {
+
+        return dynamoDbAsyncClient.getItem(requestTemplates.getItem(tableName))
+                .thenApply(response -> {
+                    if (!response.sdkHttpResponse().isSuccessful()) {
+                        log.error("Could not get item async, tableName: {}", tableName);
+                        return null;
+                    }
+                    log.info("Get item async, tableName: {}", tableName);
+                    return response.hasItem() ? AttributeValueJson.toJson(response.item()) : null;
+                });
+    }
+
     public void scan(String tableName) {
 
         ScanResponse response = dynamoDbClient.scan(ScanRequest.builder().tableName(tableName).build());
@@ -107,4 +240,395 @@ public class DynamodbService {
         assert (response.hasItems());
         assert (response.count() == 1);
     }
+
+    /**
+     * Scans the whole table page by page, every page is requested when the previous one has arrived.
+     */
+    public CompletableFuture<Long> scanAsync(String tableName) {
+
+        LongAdder items = new LongAdder();
+        return dynamoDbAsyncClient.scanPaginator(ScanRequest.builder().tableName(tableName).build())
+                .subscribe(page -> {
+                    if (page.sdkHttpResponse().isSuccessful()) {
+                        items.add(page.items().size());
+                    } else {
+                        log.error("Could not scan page async, tableName: {}", tableName);
+                    }
+                })
+                .thenApply(ignored -> {
+                    log.info("Scan async, tableName: {}, items: {}", tableName, items.sum());
+                    return items.sum();
+                });
+    }
+
+    /**
+     * Returns a single page of the query. The last evaluated key of the page is the exclusive start key of the next
+     * page.
+     */
+    public QueryPage query(QueryDefinition queryDefinition) {
+
+        long start = System.nanoTime();
+        QueryResponse response = dynamoDbClient.query(queryRequest(queryDefinition));
+        QueryPage page = toQueryPage(response, start);
+
+        log.info("Query, tableName: {}, indexName: {}, count: {}, scannedCount: {}", queryDefinition.getTableName(), queryDefinition.getIndexName(), page.getCount(), page.getScannedCount());
+        return page;
+    }
+
+    public CompletableFuture<QueryPage> queryAsync(QueryDefinition queryDefinition) {
+
+        long start = System.nanoTime();
+        return dynamoDbAsyncClient.query(queryRequest(queryDefinition))
+                .thenApply(response -> {
+                    if (!response.sdkHttpResponse().isSuccessful()) {
+                        log.error("Could not query async, tableName: {}, indexName: {}", queryDefinition.getTableName(), queryDefinition.getIndexName());
+                    }
+                    QueryPage page = toQueryPage(response, start);
+                    log.info("Query async, tableName: {}, indexName: {}, count: {}", queryDefinition.getTableName(), queryDefinition.getIndexName(), page.getCount());
+                    return page;
+                });
+    }
+
+    /**
+     * Pages through all results of the query and writes them as NDJSON lines, followed by a summary line.
+     */
+    public QuerySummary queryAll(QueryDefinition queryDefinition, OutputStream outputStream) throws IOException {
+
+        long start = System.nanoTime();
+        long pages = 0;
+        long items = 0;
+        long scannedCount = 0;
+        Lock writeLock = new ReentrantLock();
+        for (QueryResponse page : dynamoDbClient.queryPaginator(queryRequest(queryDefinition))) {
+            writeItems(page.items(), outputStream, writeLock);
+            pages++;
+            items += page.items().size();
+            scannedCount += Objects.requireNonNullElse(page.scannedCount(), 0);
+        }
+
+        long durationNanos = Math.max(System.nanoTime() - start, 1);
+        QuerySummary summary = QuerySummary.builder()
+                .tableName(queryDefinition.getTableName())
+                .indexName(queryDefinition.getIndexName())
+                .pages(pages)
+                .items(items)
+                .scannedCount(scannedCount)
+                .durationMs(durationNanos / 1_000_000)
+                .itemsPerSecond(items * 1e9 / durationNanos)
+                .build();
+        outputStream.write(objectMapper.writeValueAsBytes(Map.of("summary", summary)));
+        outputStream.write('\n');
+        outputStream.flush();
+
+        log.info("Query all pages, tableName: {}, indexName: {}, pages: {}, items: {}, durationMs: {}",
+                queryDefinition.getTableName(), queryDefinition.getIndexName(), pages, items, summary.getDurationMs());
+        return summary;
+    }
+
+    /**
+     * Scans the table with one virtual thread per segment. Every worker pages through its segment and writes each page
+     * as NDJSON lines to the output stream, so the result is never buffered as a whole. A summary line closes the
+     * stream.
+     *
+     * @param segments   number of segments, the number of processors when not given
+     * @param projection comma separated attribute names
+     * @param limit      maximal number of items evaluated per page
+     */
+    public ScanSummary parallelScan(String tableName, Integer segments, String projection, Integer limit, OutputStream outputStream) throws IOException {
+
+        int totalSegments = segments != null && segments > 0 ? segments : scanSegments > 0 ? scanSegments : Runtime.getRuntime().availableProcessors();
+        log.info("Received parallel scan request, tableName: {}, segments: {}, projection: {}, limit: {}", tableName, totalSegments, projection, limit);
+
+        ScanRequest.Builder builder = ScanRequest.builder().tableName(tableName).totalSegments(totalSegments);
+        if (limit != null && limit > 0) {
+            builder.limit(limit);
+        }
+        if (projection != null && !projection.isBlank()) {
+            Map<String, String> names = new HashMap<>();
+            StringJoiner expression = new StringJoiner(",");
+            for (String attribute : projection.split(",")) {
+                String placeholder = "#p" + names.size();
+                names.put(placeholder, attribute.trim());
+                expression.add(placeholder);
+            }
+            builder.projectionExpression(expression.toString()).expressionAttributeNames(names);
+        }
+        ScanRequest request = builder.build();
+
+        long start = System.nanoTime();
+        LongAdder pages = new LongAdder();
+        LongAdder items = new LongAdder();
+        LongAdder scannedCount = new LongAdder();
+        AtomicInteger failedSegments = new AtomicInteger();
+        AtomicBoolean aborted = new AtomicBoolean();
+        Lock writeLock = new ReentrantLock();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int segment = 0; segment < totalSegments; segment++) {
+                ScanRequest segmentRequest = request.toBuilder().segment(segment).build();
+                executor.execute(() -> {
+                    try {
+                        for (ScanResponse page : dynamoDbClient.scanPaginator(segmentRequest)) {
+                            if (aborted.get()) {
+                                return;
+                            }
+                            writeItems(page.items(), outputStream, writeLock);
+                            pages.increment();
+                            items.add(page.items().size());
+                            scannedCount.add(Objects.requireNonNullElse(page.scannedCount(), 0));
+                        }
+                    } catch (RuntimeException ex) {
+                        // SDK errors as well as failures converting or serializing the items
+                        failedSegments.incrementAndGet();
+                        log.error("Could not scan segment, tableName: {}, segment: {}, error: {}", tableName, segmentRequest.segment(), ex.getMessage());
+                    } catch (IOException ex) {
+                        aborted.set(true);
+                        log.error("Could not write scan result, tableName: {}, error: {}", tableName, ex.getMessage());
+                    }
+                });
+            }
+        }
+        if (aborted.get()) {
+            throw new IOException("Scan result stream closed, tableName: " + tableName);
+        }
+
+        long durationNanos = Math.max(System.nanoTime() - start, 1);
+        ScanSummary summary = ScanSummary.builder()
+                .tableName(tableName)
+                .segments(totalSegments)
+                .failedSegments(failedSegments.get())
+                .pages(pages.sum())
+                .items(items.sum())
+                .scannedCount(scannedCount.sum())
+                .durationMs(durationNanos / 1_000_000)
+                .itemsPerSecond(items.sum() * 1e9 / durationNanos)
+                .build();
+        outputStream.write(objectMapper.writeValueAsBytes(Map.of("summary", summary)));
+        outputStream.write('\n');
+        outputStream.flush();
+
+        log.info("Parallel scan, tableName: {}, segments: {}, pages: {}, items: {}, durationMs: {}, itemsPerSecond: {}",
+                tableName, totalSegments, summary.getPages(), summary.getItems(), summary.getDurationMs(), summary.getItemsPerSecond());
+        return summary;
+    }
+
+    /**
+     * Writes count generated items with BatchWriteItem in chunks of 25 items. The chunks run on virtual threads with
+     * at most maxInFlight chunks at a time. Unprocessed items and throttled chunks are retried with exponential backoff.
+     */
+    public BatchResult batchWriteItems(String tableName, int count, int attributeCount, int attributeSize, Integer maxInFlight) {
+
+        log.info("Received batch write request, tableName: {}, count: {}, attributeCount: {}, attributeSize: {}", tableName, count, attributeCount, attributeSize);
+
+        long seed = payloadGenerator.defaultSeed();
+        return batchWriteItems(tableName, count, index -> item(index, attributeCount, attributeSize, seed), maxInFlight);
+    }
+
+    /**
+     * Writes the items created by the item factory for the indexes 0..count-1. Failures carry the item index as id.
+     */
+    BatchResult batchWriteItems(String tableName, int count, IntFunction<Map<String, AttributeValue>> itemFactory, Integer maxInFlight) {
+
+        BulkCounters counters = new BulkCounters();
+        BatchResult batchResult = runChunks(count, MAX_WRITE_BATCH_SIZE, maxInFlight, (first, last) -> {
+            List<WriteRequest> writeRequests = new ArrayList<>(last - first);
+            for (int i = first; i < last; i++) {
+                writeRequests.add(WriteRequest.builder().putRequest(PutRequest.builder().item(itemFactory.apply(i)).build()).build());
+            }
+            Map<String, List<WriteRequest>> unprocessed = Map.of(tableName, writeRequests);
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    unprocessed = dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder().requestItems(unprocessed).build()).unprocessedItems();
+                } catch (ProvisionedThroughputExceededException | RequestLimitExceededException ex) {
+                    counters.throttled.increment();
+                }
+                if (unprocessed.isEmpty() || attempt >= this.maxRetries) {
+                    break;
+                }
+                counters.retries.increment();
+                backoff(attempt);
+            }
+            return unprocessed.getOrDefault(tableName, List.of()).stream()
+                    .map(writeRequest -> BatchFailure.builder().id(String.valueOf(first + writeRequests.indexOf(writeRequest))).code("UnprocessedItem").build())
+                    .toList();
+        });
+        counters.applyTo(batchResult);
+
+        log.info("Batch write items, tableName: {}, successful: {}, failed: {}, retries: {}, throttled: {}, durationMs: {}, perSecond: {}", tableName,
+                batchResult.getSuccessful(), batchResult.getFailed(), batchResult.getRetries(), batchResult.getThrottled(), batchResult.getDurationMs(), batchResult.getPerSecond());
+        return batchResult;
+    }
+
+    /**
+     * Reads the items 0..count-1 written by batchWriteItems with BatchGetItem in chunks of 100 keys. Keys which are
+     * still unprocessed after the retries or which are not found are reported as failures.
+     */
+    public BatchResult batchGetItems(String tableName, int count, Integer maxInFlight) {
+
+        log.info("Received batch get request, tableName: {}, count: {}", tableName, count);
+
+        BulkCounters counters = new BulkCounters();
+        BatchResult batchResult = runChunks(count, MAX_GET_BATCH_SIZE, maxInFlight, (first, last) -> {
+            List<Map<String, AttributeValue>> keys = new ArrayList<>(last - first);
+            for (int i = first; i < last; i++) {
+                keys.add(Map.of(KEY_ATTRIBUTE, AttributeValue.fromN(String.valueOf(i))));
+            }
+            Set<String> missing = new HashSet<>();
+            keys.forEach(key -> missing.add(key.get(KEY_ATTRIBUTE).n()));
+            Map<String, KeysAndAttributes> unprocessed = Map.of(tableName, KeysAndAttributes.builder().keys(keys).build());
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    BatchGetItemResponse response = dynamoDbClient.batchGetItem(BatchGetItemRequest.builder().requestItems(unprocessed).build());
+                    response.responses().getOrDefault(tableName, List.of()).forEach(item -> missing.remove(item.get(KEY_ATTRIBUTE).n()));
+                    unprocessed = response.unprocessedKeys();
+                } catch (ProvisionedThroughputExceededException | RequestLimitExceededException ex) {
+                    counters.throttled.increment();
+                }
+                if (unprocessed.isEmpty() || attempt >= this.maxRetries) {
+                    break;
+                }
+                counters.retries.increment();
+                backoff(attempt);
+            }
+            Set<String> unprocessedKeys = new HashSet<>();
+            if (unprocessed.containsKey(tableName)) {
+                unprocessed.get(tableName).keys().forEach(key -> unprocessedKeys.add(key.get(KEY_ATTRIBUTE).n()));
+            }
+            return missing.stream()
+                    .map(key -> BatchFailure.builder().id(key).code(unprocessedKeys.contains(key) ? "UnprocessedKey" : "NotFound").build())
+                    .toList();
+        });
+        counters.applyTo(batchResult);
+
+        log.info("Batch get items, tableName: {}, successful: {}, failed: {}, retries: {}, throttled: {}, durationMs: {}, perSecond: {}", tableName,
+                batchResult.getSuccessful(), batchResult.getFailed(), batchResult.getRetries(), batchResult.getThrottled(), batchResult.getDurationMs(), batchResult.getPerSecond());
+        return batchResult;
+    }
+
+    private static QueryRequest queryRequest(QueryDefinition queryDefinition) {
+
+        QueryRequest.Builder builder = QueryRequest.builder()
+                .tableName(queryDefinition.getTableName())
+                .indexName(queryDefinition.getIndexName())
+                .keyConditionExpression(queryDefinition.getKeyConditionExpression())
+                .filterExpression(queryDefinition.getFilterExpression())
+                .projectionExpression(queryDefinition.getProjectionExpression())
+                .scanIndexForward(queryDefinition.isScanIndexForward())
+                .limit(queryDefinition.getLimit());
+        if (queryDefinition.getExpressionAttributeNames() != null && !queryDefinition.getExpressionAttributeNames().isEmpty()) {
+            builder.expressionAttributeNames(queryDefinition.getExpressionAttributeNames());
+        }
+        if (queryDefinition.getExpressionAttributeValues() != null && !queryDefinition.getExpressionAttributeValues().isEmpty()) {
+            builder.expressionAttributeValues(AttributeValueJson.fromJson(queryDefinition.getExpressionAttributeValues()));
+        }
+        if (queryDefinition.getExclusiveStartKey() != null && !queryDefinition.getExclusiveStartKey().isEmpty()) {
+            builder.exclusiveStartKey(AttributeValueJson.fromJson(queryDefinition.getExclusiveStartKey()));
+        }
+        return builder.build();
+    }
+
+    private static QueryPage toQueryPage(QueryResponse response, long startNanos) {
+        return QueryPage.builder()
+                .items(response.items().stream().<JsonNode>map(AttributeValueJson::toJson).toList())
+                .count(response.items().size())
+                .scannedCount(Objects.requireNonNullElse(response.scannedCount(), 0))
+                .durationMs((System.nanoTime() - startNanos) / 1_000_000)
+                .lastEvaluatedKey(response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty() ? AttributeValueJson.toJson(response.lastEvaluatedKey()) : null)
+                .build();
+    }
+
+    private static List<KeySchemaElement> keySchema(KeyDefinition hashKey, KeyDefinition rangeKey, Map<String, AttributeDefinition> attributeDefinitions) {
+        List<KeySchemaElement> keySchema = new ArrayList<>(2);
+        for (KeyDefinition key : new KeyDefinition[]{hashKey, rangeKey}) {
+            if (key == null) {
+                continue;
+            }
+            keySchema.add(KeySchemaElement.builder().attributeName(key.getName()).keyType(key == hashKey ? KeyType.HASH : KeyType.RANGE).build());
+            attributeDefinitions.putIfAbsent(key.getName(), AttributeDefinition.builder().attributeName(key.getName()).attributeType(key.getType()).build());
+        }
+        return keySchema;
+    }
+
+    /**
+     * Writes the items as NDJSON lines. The lines are serialized first, so concurrent writers only hold the lock
+     * while copying the bytes.
+     */
+    private void writeItems(List<Map<String, AttributeValue>> items, OutputStream outputStream, Lock writeLock) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (Map<String, AttributeValue> item : items) {
+            lines.write(objectMapper.writeValueAsBytes(AttributeValueJson.toJson(item)));
+            lines.write('\n');
+        }
+        writeLock.lock();
+        try {
+            lines.writeTo(outputStream);
+            outputStream.flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the chunks of the entries 0..count-1 on virtual threads. A chunk call receives the first (inclusive) and
+     * last (exclusive) entry index and returns the failed entries.
+     */
+    private BatchResult runChunks(int count, int chunkSize, Integer maxInFlight, ChunkCall chunkCall) {
+
+        long start = System.nanoTime();
+        int chunkCount = (count + chunkSize - 1) / chunkSize;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<List<BatchFailure>> results = InFlightWindow.run(chunkCount, chunk -> {
+                int first = chunk * chunkSize;
+                int last = Math.min(first + chunkSize, count);
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return chunkCall.apply(first, last);
+                    } catch (SdkException ex) {
+                        log.error("Chunk failed, first: {}, last: {}, error: {}", first, last - 1, ex.getMessage());
+                        return BatchFailure.range(first, last, ex);
+                    }
+                }, executor);
+            }, InFlightWindow.maxInFlight(maxInFlight, this.maxInFlight));
+            return BatchResult.of(count, chunkCount, start, results.stream().flatMap(List::stream).toList());
+        }
+    }
+
+    private void backoff(int attempt) {
+        long capMs = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt, 20));
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(capMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Item with the index as key and attributeCount string attributes of attributeSize generated characters.
+     */
+    private static Map<String, AttributeValue> item(long index, int attributeCount, int attributeSize, long seed) {
+        Map<String, AttributeValue> item = new HashMap<>(attributeCount + 1, 1.0f);
+        item.put(KEY_ATTRIBUTE, AttributeValue.fromN(String.valueOf(index)));
+        RandomPayload payload = new RandomPayload(seed + index * 0x9E3779B97F4A7C15L, (long) attributeCount * attributeSize);
+        byte[] value = new byte[attributeSize];
+        for (int i = 0; i < attributeCount; i++) {
+            payload.fill(value, 0, attributeSize);
+            item.put("attribute" + i, AttributeValue.fromS(new String(value, StandardCharsets.US_ASCII)));
+        }
+        return item;
+    }
+
+    @FunctionalInterface
+    private interface ChunkCall {
+        List<BatchFailure> apply(int first, int last);
+    }
+
+    private static class BulkCounters {
+
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+
+        void applyTo(BatchResult batchResult) {
+            batchResult.setRetries(retries.sum());
+            batchResult.setThrottled(throttled.sum());
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package de.jensvogt.awsmock.springtest.service;
+
+/**
+ * Single operation of a load scenario. The iteration can be used to derive keys or message content.
+ */
+@FunctionalInterface
+interface LoadOperation {
+
+    void execute(long iteration) throws Exception;
+}
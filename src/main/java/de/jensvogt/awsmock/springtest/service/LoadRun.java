@@ -0,0 +1,240 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import de.jensvogt.awsmock.springtest.dto.*;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the operations of a load request on virtual threads, either open loop at a constant or linearly ramped rate,
+ * or closed loop with a fixed number of workers. Latencies are recorded in HDR histograms per scenario. In open loop
+ * the response time is measured from the time an operation was scheduled to start, so operations delayed by slow
+ * predecessors are not hidden (coordinated omission).
+ */
+@Slf4j
+class LoadRun {
+
+    private final String runId;
+    private final LoadRequest request;
+    private final List<LoadScenario> scenarios;
+    private final Map<LoadScenario, LoadOperation> operations;
+    private final Map<LoadScenario, OperationRecorder> recorders = new EnumMap<>(LoadScenario.class);
+    private final double startRate;
+    private final double targetRate;
+    private final long rampUpNanos;
+    private final long durationNanos;
+    private final AtomicLong started = new AtomicLong();
+
+    private volatile LoadState state = LoadState.RUNNING;
+    private Thread coordinator;
+    private long startNanos;
+    private volatile long stopNanos;
+
+    LoadRun(String runId, LoadRequest request, Map<LoadScenario, LoadOperation> operations) {
+        this.runId = runId;
+        this.request = request;
+        this.scenarios = List.copyOf(request.getScenarios());
+        this.operations = operations;
+        this.targetRate = request.getRatePerSecond();
+        this.rampUpNanos = TimeUnit.SECONDS.toNanos(request.getRampUpSeconds());
+        this.startRate = rampUpNanos > 0 ? request.getStartRatePerSecond() : targetRate;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(request.getDurationSeconds());
+        scenarios.forEach(scenario -> recorders.put(scenario, new OperationRecorder(scenario)));
+    }
+
+    synchronized void start() {
+        startNanos = System.nanoTime();
+        coordinator = Thread.ofVirtual().name("load-" + runId).start(request.getMode() == LoadMode.OPEN ? this::runOpenLoop : this::runClosedLoop);
+        log.info("Load run started, runId: {}, mode: {}, scenarios: {}, rate: {}, concurrency: {}", runId, request.getMode(), scenarios, targetRate, request.getConcurrency());
+    }
+
+    void stop() {
+        if (state != LoadState.RUNNING) {
+            return;
+        }
+        stopNanos = System.nanoTime();
+        state = LoadState.STOPPED;
+        coordinator.interrupt();
+        try {
+            coordinator.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean isRunning() {
+        return state == LoadState.RUNNING;
+    }
+
+    long stoppedAt() {
+        return stopNanos;
+    }
+
+    LoadStatus status() {
+        long elapsedNanos = Math.max((state == LoadState.RUNNING ? System.nanoTime() : stopNanos) - startNanos, 1);
+        List<OperationStats> stats = new ArrayList<>(recorders.size());
+        recorders.values().forEach(recorder -> stats.add(recorder.stats(elapsedNanos)));
+        return LoadStatus.builder()
+                .runId(runId)
+                .state(state)
+                .mode(request.getMode())
+                .targetRatePerSecond(request.getMode() == LoadMode.OPEN ? targetRate : 0)
+                .currentRatePerSecond(request.getMode() == LoadMode.OPEN ? rateAt(elapsedNanos) : 0)
+                .concurrency(request.getConcurrency())
+                .started(started.get())
+                .elapsedMs(elapsedNanos / 1_000_000)
+                .operations(stats)
+                .build();
+    }
+
+    private void runOpenLoop() {
+        Semaphore outstanding = new Semaphore(request.getConcurrency());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long iteration = 0; state == LoadState.RUNNING; iteration++) {
+                long offsetNanos = scheduledOffsetNanos(iteration);
+                if (offsetNanos >= durationNanos) {
+                    break;
+                }
+                long intendedStart = startNanos + offsetNanos;
+                parkUntil(intendedStart);
+                outstanding.acquire();
+                long current = iteration;
+                executor.execute(() -> {
+                    try {
+                        execute(current, intendedStart);
+                    } finally {
+                        outstanding.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finish();
+    }
+
+    private void runClosedLoop() {
+        long deadline = startNanos + durationNanos;
+        AtomicLong iterations = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < request.getConcurrency(); i++) {
+                executor.execute(() -> {
+                    while (state == LoadState.RUNNING && System.nanoTime() < deadline) {
+                        execute(iterations.getAndIncrement(), System.nanoTime());
+                    }
+                });
+            }
+        }
+        finish();
+    }
+
+    private void execute(long iteration, long intendedStart) {
+        started.incrementAndGet();
+        LoadScenario scenario = scenarios.get((int) (iteration % scenarios.size()));
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            operations.get(scenario).execute(iteration);
+        } catch (Exception ex) {
+            failed = true;
+            log.debug("Load operation failed, runId: {}, scenario: {}, error: {}", runId, scenario, ex.getMessage());
+        }
+        recorders.get(scenario).record(intendedStart, start, System.nanoTime(), failed);
+    }
+
+    private void finish() {
+        stopNanos = System.nanoTime();
+        if (state == LoadState.RUNNING) {
+            state = LoadState.COMPLETED;
+        }
+        log.info("Load run finished, runId: {}, state: {}, started: {}", runId, state, started.get());
+    }
+
+    /**
+     * Offset of the scheduled start of the given operation. During the ramp-up the rate grows linearly, so the number
+     * of operations up to time t is startRate * t + (targetRate - startRate) * t^2 / (2 * rampUp).
+     */
+    private long scheduledOffsetNanos(long iteration) {
+        double rampUpSeconds = rampUpNanos / 1e9;
+        double rampUpOperations = (startRate + targetRate) / 2 * rampUpSeconds;
+        double seconds;
+        if (rampUpNanos > 0 && iteration < rampUpOperations) {
+            double a = (targetRate - startRate) / (2 * rampUpSeconds);
+            seconds = Math.abs(a) < 1e-9 ? iteration / startRate : (-startRate + Math.sqrt(startRate * startRate + 4 * a * iteration)) / (2 * a);
+        } else {
+            seconds = rampUpSeconds + (iteration - rampUpOperations) / targetRate;
+        }
+        return (long) (seconds * 1e9);
+    }
+
+    private double rateAt(long elapsedNanos) {
+        if (elapsedNanos >= rampUpNanos) {
+            return targetRate;
+        }
+        return startRate + (targetRate - startRate) * elapsedNanos / rampUpNanos;
+    }
+
+    private static void parkUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private static class OperationRecorder {
+
+        private final LoadScenario scenario;
+        private final Recorder responseTimeRecorder = new Recorder(3);
+        private final Recorder serviceTimeRecorder = new Recorder(3);
+        private final Histogram responseTime = new Histogram(3);
+        private final Histogram serviceTime = new Histogram(3);
+        private final LongAdder errors = new LongAdder();
+        private Histogram responseInterval;
+        private Histogram serviceInterval;
+
+        OperationRecorder(LoadScenario scenario) {
+            this.scenario = scenario;
+        }
+
+        void record(long intendedStart, long start, long end, boolean failed) {
+            responseTimeRecorder.recordValue(Math.max((end - intendedStart) / 1000, 0));
+            serviceTimeRecorder.recordValue(Math.max((end - start) / 1000, 0));
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        synchronized OperationStats stats(long elapsedNanos) {
+            responseInterval = responseTimeRecorder.getIntervalHistogram(responseInterval);
+            serviceInterval = serviceTimeRecorder.getIntervalHistogram(serviceInterval);
+            responseTime.add(responseInterval);
+            serviceTime.add(serviceInterval);
+            long count = serviceTime.getTotalCount();
+            long errorCount = errors.sum();
+            return OperationStats.builder()
+                    .scenario(scenario)
+                    .count(count)
+                    .errors(errorCount)
+                    .perSecond(count * 1e9 / elapsedNanos)
+                    .succeededPerSecond(Math.max(count - errorCount, 0) * 1e9 / elapsedNanos)
+                    .responseTime(LatencySummary.of(responseTime))
+                    .serviceTime(LatencySummary.of(serviceTime))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import de.jensvogt.awsmock.springtest.dto.*;
+import de.jensvogt.awsmock.springtest.util.InFlightWindow;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoadService {
+
+    private static final String OBJECT_KEY_PREFIX = "load-test/";
+
+    private static final Set<LoadScenario> S3_SCENARIOS = EnumSet.of(LoadScenario.S3_PUT, LoadScenario.S3_GET);
+
+    private static final Set<LoadScenario> COGNITO_SCENARIOS = EnumSet.of(LoadScenario.COGNITO_ADMIN_AUTH, LoadScenario.COGNITO_AUTH, LoadScenario.COGNITO_REFRESH);
+
+    private final SQSService sqsService;
+
+    private final SNSService snsService;
+
+    private final S3Service s3Service;
+
+    private final DynamodbService dynamodbService;
+
+    private final CognitoService cognitoService;
+
+    private final Map<String, LoadRun> runs = new ConcurrentHashMap<>();
+
+    @Value("${de.jensvogt.awsmock.load.max-finished-runs}")
+    private int maxFinishedRuns;
+
+    public LoadStatus start(LoadRequest request) {
+
+        validate(request);
+        Map<LoadScenario, LoadOperation> operations = new EnumMap<>(LoadScenario.class);
+        for (LoadScenario scenario : request.getScenarios()) {
+            operations.put(scenario, operation(scenario, request));
+        }
+
+        String runId = UUID.randomUUID().toString();
+        LoadRun run = new LoadRun(runId, request, operations);
+        runs.put(runId, run);
+        run.start();
+        evictFinishedRuns();
+        return run.status();
+    }
+
+    public LoadStatus stop(String runId) {
+
+        LoadRun run = runs.get(runId);
+        if (run == null) {
+            log.error("No load run found, runId: {}", runId);
+            return null;
+        }
+        run.stop();
+        return run.status();
+    }
+
+    public LoadStatus delete(String runId) {
+
+        LoadRun run = runs.remove(runId);
+        if (run == null) {
+            log.error("No load run found, runId: {}", runId);
+            return null;
+        }
+        run.stop();
+        return run.status();
+    }
+
+    public LoadStatus status(String runId) {
+
+        LoadRun run = runs.get(runId);
+        return run != null ? run.status() : null;
+    }
+
+    public List<LoadStatus> status() {
+        return runs.values().stream().map(LoadRun::status).toList();
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        runs.values().forEach(LoadRun::stop);
+    }
+
+    /**
+     * Finished runs are kept for their status, beyond the configured number the runs which stopped first are removed.
+     */
+    private void evictFinishedRuns() {
+
+        List<Map.Entry<String, LoadRun>> finished = runs.entrySet().stream()
+                .filter(entry -> !entry.getValue().isRunning())
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().stoppedAt()))
+                .toList();
+        for (int i = 0; i < finished.size() - maxFinishedRuns; i++) {
+            runs.remove(finished.get(i).getKey(), finished.get(i).getValue());
+            log.info("Finished load run removed, runId: {}", finished.get(i).getKey());
+        }
+    }
+
+    private LoadOperation operation(LoadScenario scenario, LoadRequest request) {
+
+        return switch (scenario) {
+            case SQS_SEND -> {
+                String queueUrl = sqsService.getQueueUrl(request.getQueueName());
+                yield iteration -> sqsService.sendMessage(queueUrl, TestMessage.builder().testKey("load-" + iteration).build());
+            }
+            case SQS_RECEIVE -> {
+                String queueUrl = sqsService.getQueueUrl(request.getQueueName());
+                yield iteration -> sqsService.receiveMessages(queueUrl, 10, 0);
+            }
+            case SQS_DELETE -> {
+                String queueUrl = sqsService.getQueueUrl(request.getQueueName());
+                yield iteration -> {
+                    for (TestMessage testMessage : sqsService.receiveMessages(queueUrl, 1, 0)) {
+                        sqsService.deleteMessage(request.getQueueName(), testMessage.getReceiptHandle());
+                    }
+                };
+            }
+            case SNS_PUBLISH -> iteration -> snsService.publish(request.getTopicArn(), TestMessage.builder().testKey("load-" + iteration).build());
+            case S3_PUT -> iteration -> s3Service.putObject(request.getBucketName(), objectKey(request, iteration), request.getObjectSizeMb());
+            case S3_GET -> iteration -> s3Service.getObjectStream(request.getBucketName(), objectKey(request, iteration), null, StreamSink.DISCARD);
+            case DYNAMODB_PUT -> iteration -> dynamodbService.putItem(request.getTableName());
+            case DYNAMODB_GET -> iteration -> dynamodbService.getItem(request.getTableName());
+            case DYNAMODB_SCAN -> iteration -> dynamodbService.scan(request.getTableName());
+            case COGNITO_ADMIN_AUTH -> iteration -> cognitoService.adminInitiateAuth(request.getUserPoolId(), request.getClientId(), userName(request, iteration), request.getPassword());
+            case COGNITO_AUTH -> iteration -> cognitoService.initiateAuth(request.getClientId(), userName(request, iteration), request.getPassword());
+            case COGNITO_REFRESH -> {
+                // Every user logs in before the run starts, so the recorded load consists of refreshes only
+                String[] refreshTokens = login(request);
+                yield iteration -> cognitoService.refreshTokens(request.getClientId(), refreshTokens[(int) (iteration % request.getUserCount())]);
+            }
+        };
+    }
+
+    /**
+     * Logs in all users on virtual threads, with at most the run's concurrency of logins in flight.
+     *
+     * @return refresh tokens by user index
+     */
+    private String[] login(LoadRequest request) {
+
+        long start = System.nanoTime();
+        String[] refreshTokens = new String[request.getUserCount()];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            InFlightWindow.run(request.getUserCount(), index -> CompletableFuture.runAsync(() -> refreshTokens[index] = cognitoService.adminInitiateAuth(
+                    request.getUserPoolId(), request.getClientId(), userName(request, index), request.getPassword()).refreshToken(), executor), request.getConcurrency());
+        } catch (CompletionException ex) {
+            throw new IllegalArgumentException("Could not log in the users of the refresh scenario: " + BatchFailure.cause(ex).getMessage(), ex);
+        }
+        log.info("Users logged in, userPoolId: {}, count: {}, durationMs: {}", request.getUserPoolId(), request.getUserCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return refreshTokens;
+    }
+
+    private static String userName(LoadRequest request, long iteration) {
+        return request.getUserNamePrefix() + (iteration % request.getUserCount());
+    }
+
+    private static String objectKey(LoadRequest request, long iteration) {
+        return OBJECT_KEY_PREFIX + (iteration % request.getObjectKeys());
+    }
+
+    private static void validate(LoadRequest request) {
+
+        if (request.getScenarios() == null || request.getScenarios().isEmpty()) {
+            throw new IllegalArgumentException("At least one scenario is required");
+        }
+        if (request.getDurationSeconds() <= 0 || request.getConcurrency() <= 0) {
+            throw new IllegalArgumentException("Duration and concurrency must be positive");
+        }
+        if (request.getMode() == LoadMode.OPEN && request.getRatePerSecond() <= 0) {
+            throw new IllegalArgumentException("Open loop requires a positive rate");
+        }
+        if (request.getStartRatePerSecond() < 0 || request.getRampUpSeconds() < 0) {
+            throw new IllegalArgumentException("Start rate and ramp-up must not be negative");
+        }
+        for (LoadScenario scenario : request.getScenarios()) {
+            String target = switch (scenario) {
+                case SQS_SEND, SQS_RECEIVE, SQS_DELETE -> request.getQueueName();
+                case SNS_PUBLISH -> request.getTopicArn();
+                case S3_PUT, S3_GET -> request.getBucketName();
+                case DYNAMODB_PUT, DYNAMODB_GET, DYNAMODB_SCAN -> request.getTableName();
+                case COGNITO_AUTH -> request.getClientId();
+                case COGNITO_ADMIN_AUTH, COGNITO_REFRESH -> request.getUserPoolId() != null && request.getClientId() != null ? request.getClientId() : null;
+            };
+            if (target == null || target.isBlank()) {
+                throw new IllegalArgumentException("Missing queue, topic, bucket, table name or user pool client for scenario " + scenario);
+            }
+            if (COGNITO_SCENARIOS.contains(scenario) && (request.getPassword() == null || request.getUserCount() <= 0)) {
+                throw new IllegalArgumentException("Cognito scenarios require a password and a positive user count");
+            }
+            if (S3_SCENARIOS.contains(scenario) && request.getObjectKeys() <= 0) {
+                throw new IllegalArgumentException("S3 scenarios require a positive number of object keys");
+            }
+        }
+    }
+}
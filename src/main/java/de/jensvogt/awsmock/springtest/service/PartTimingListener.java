@@ -0,0 +1,67 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import de.jensvogt.awsmock.springtest.dto.PartTiming;
+import software.amazon.awssdk.transfer.s3.progress.TransferListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Derives part timings from the transfer progress. The CRT client does not report individual parts, so a part counts
+ * as done when the transferred bytes cross its upper boundary. With parallel parts this measures how fast the
+ * transfer advances by one part size, not the latency of a particular part request.
+ */
+class PartTimingListener implements TransferListener {
+
+    private final long partSize;
+    private final List<PartTiming> parts = new ArrayList<>();
+    private long startNanos = System.nanoTime();
+    private long lastBoundaryNanos = startNanos;
+    private long lastBoundaryBytes;
+
+    PartTimingListener(long partSize) {
+        this.partSize = partSize;
+    }
+
+    @Override
+    public synchronized void transferInitiated(Context.TransferInitiated context) {
+        startNanos = System.nanoTime();
+        lastBoundaryNanos = startNanos;
+    }
+
+    @Override
+    public synchronized void bytesTransferred(Context.BytesTransferred context) {
+        long transferred = context.progressSnapshot().transferredBytes();
+        while (transferred >= lastBoundaryBytes + partSize) {
+            addPart(lastBoundaryBytes + partSize);
+        }
+    }
+
+    @Override
+    public synchronized void transferComplete(Context.TransferComplete context) {
+        long transferred = context.progressSnapshot().transferredBytes();
+        if (transferred > lastBoundaryBytes) {
+            addPart(transferred);
+        }
+    }
+
+    synchronized long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    synchronized List<PartTiming> parts() {
+        return List.copyOf(parts);
+    }
+
+    private void addPart(long boundaryBytes) {
+        long now = System.nanoTime();
+        parts.add(PartTiming.builder()
+                .partNumber(parts.size() + 1)
+                .bytes(boundaryBytes - lastBoundaryBytes)
+                .elapsedMs((now - startNanos) / 1_000_000)
+                .durationMs((now - lastBoundaryNanos) / 1_000_000)
+                .build());
+        lastBoundaryBytes = boundaryBytes;
+        lastBoundaryNanos = now;
+    }
+}
@@ -0,0 +1,96 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import de.jensvogt.awsmock.springtest.dto.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded queue name to queue URL cache. Entries expire after the configured TTL, the least recently used entry is
+ * evicted when the cache is full.
+ */
+@Component
+public class QueueUrlCache {
+
+    private final int maxSize;
+    private final long ttlSeconds;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public QueueUrlCache(@Value("${de.jensvogt.awsmock.sqs.queue-url-cache.max-size}") int maxSize,
+                         @Value("${de.jensvogt.awsmock.sqs.queue-url-cache.ttl-seconds}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlSeconds = ttlSeconds;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > QueueUrlCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String get(String queueName) {
+        synchronized (entries) {
+            Entry entry = entries.get(queueName);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.queueUrl;
+            }
+            if (entry != null) {
+                entries.remove(queueName);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String queueName, String queueUrl) {
+        if (queueUrl == null || queueUrl.isEmpty()) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(queueName, new Entry(queueUrl, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void invalidate(String queueName) {
+        synchronized (entries) {
+            entries.remove(queueName);
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        return CacheStats.builder()
+                .size(size)
+                .maxSize(maxSize)
+                .ttlSeconds(ttlSeconds)
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .hitRatio(hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0)
+                .build();
+    }
+
+    private record Entry(String queueUrl, long expiresAt) {
+    }
+}
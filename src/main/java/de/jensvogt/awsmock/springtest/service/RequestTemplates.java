@@ -0,0 +1,90 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.model.*;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Prebuilt SDK requests for the operations which are called repeatedly with the same parameters. SDK requests are
+ * immutable, so a template is either sent as it is or copied with toBuilder(), setting only the fields which vary per
+ * call. Attribute maps and their values are built once and shared by all requests. A plain SendMessage is still built
+ * per call, it has no attribute maps and toBuilder() would copy as much as a fresh builder.
+ * <p>
+ * Templates per queue URL or table name are cached up to the configured size, further keys get a template which is
+ * built per call.
+ */
+@Component
+public class RequestTemplates {
+
+    private static final String KEY_ATTRIBUTE = "orgaNr";
+
+    private static final int VISIBILITY_TIMEOUT = 99;
+
+    private static final Map<String, MessageAttributeValue> MESSAGE_ATTRIBUTES = Map.of(
+            "my_attribute_name_1", MessageAttributeValue.builder().dataType("String").stringValue("my_attribute_value_1").build(),
+            "my_attribute_name_2", MessageAttributeValue.builder().dataType("String").stringValue("my_attribute_value_2").build());
+
+    private static final CreateQueueRequest CREATE_QUEUE = CreateQueueRequest.builder()
+            .attributes(Map.of(QueueAttributeName.VISIBILITY_TIMEOUT, String.valueOf(VISIBILITY_TIMEOUT)))
+            .tags(Map.of("tagName", "tagValue"))
+            .build();
+
+    private static final CreateTableRequest CREATE_TABLE = CreateTableRequest.builder()
+            .attributeDefinitions(AttributeDefinition.builder().attributeName(KEY_ATTRIBUTE).attributeType(ScalarAttributeType.N).build())
+            .keySchema(KeySchemaElement.builder().attributeName(KEY_ATTRIBUTE).keyType(KeyType.HASH).build())
+            .provisionedThroughput(ProvisionedThroughput.builder().readCapacityUnits(5L).writeCapacityUnits(5L).build())
+            .build();
+
+    private static final Map<String, AttributeValue> ITEM_KEY = Map.of(KEY_ATTRIBUTE, AttributeValue.fromN("1"));
+
+    private final int maxSize;
+    private final Map<String, SendMessageRequest> sendMessageAttributes = new ConcurrentHashMap<>();
+    private final Map<String, PutItemRequest> putItem = new ConcurrentHashMap<>();
+    private final Map<String, GetItemRequest> getItem = new ConcurrentHashMap<>();
+
+    public RequestTemplates(@Value("${de.jensvogt.awsmock.request-templates.max-size}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public SendMessageRequest sendMessageAttributes(String queueUrl, String messageBody) {
+        return template(sendMessageAttributes, queueUrl, key -> SendMessageRequest.builder().queueUrl(key).messageAttributes(MESSAGE_ATTRIBUTES).build())
+                .toBuilder()
+                .messageBody(messageBody)
+                .build();
+    }
+
+    public CreateQueueRequest createQueue(String queueName) {
+        return CREATE_QUEUE.toBuilder().queueName(queueName).build();
+    }
+
+    public CreateTableRequest createTable(String tableName) {
+        return CREATE_TABLE.toBuilder().tableName(tableName).build();
+    }
+
+    public PutItemRequest putItem(String tableName) {
+        return template(putItem, tableName, key -> PutItemRequest.builder().tableName(key).item(ITEM_KEY).build());
+    }
+
+    public GetItemRequest getItem(String tableName) {
+        return template(getItem, tableName, key -> GetItemRequest.builder().tableName(key).key(ITEM_KEY).build());
+    }
+
+    private <R> R template(Map<String, R> templates, String key, Function<String, R> factory) {
+        R template = templates.get(key);
+        if (template != null) {
+            return template;
+        }
+        if (templates.size() >= maxSize) {
+            return factory.apply(key);
+        }
+        return templates.computeIfAbsent(key, factory);
+    }
+}
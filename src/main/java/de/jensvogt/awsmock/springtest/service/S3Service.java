@@ -1,28 +1,35 @@
 package de.jensvogt.awsmock.springtest.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.jensvogt.awsmock.springtest.config.S3TransferManagerFactory;
+import de.jensvogt.awsmock.springtest.dto.*;
+import de.jensvogt.awsmock.springtest.payload.PayloadGenerator;
+import de.jensvogt.awsmock.springtest.util.InFlightWindow;
+import de.jensvogt.awsmock.springtest.util.PaginatedListing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.core.ResponseBytes;
-import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.transfer.s3.S3TransferManager;
-import software.amazon.awssdk.transfer.s3.model.DownloadFileRequest;
-import software.amazon.awssdk.transfer.s3.model.FileDownload;
-import software.amazon.awssdk.transfer.s3.model.FileUpload;
-import software.amazon.awssdk.transfer.s3.model.UploadFileRequest;
+import software.amazon.awssdk.transfer.s3.model.*;
 
-import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static software.amazon.awssdk.services.s3.model.BucketVersioningStatus.ENABLED;
 
@@ -31,8 +38,24 @@ import static software.amazon.awssdk.services.s3.model.BucketVersioningStatus.EN
 @RequiredArgsConstructor
 public class S3Service {
 
+    private static final int MAX_DELETE_BATCH_SIZE = 1000;
+
+    @Lazy
     private final S3Client s3Client;
+    @Lazy
+    private final S3AsyncClient s3AsyncClient;
+    @Lazy
     private final S3TransferManager s3TransferManager;
+    @Lazy
+    private final S3TransferManagerFactory s3TransferManagerFactory;
+    private final PayloadGenerator payloadGenerator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${de.jensvogt.awsmock.s3.batch.max-in-flight}")
+    private int maxInFlight;
+
+    @Value("${de.jensvogt.awsmock.s3.stream.buffer-size}")
+    private int bufferSize;
 
     public String createBucket(String bucketName) {
 
@@ -58,12 +81,44 @@ public class S3Service {
         return 0;
     }
 
-    public void putObject(String bucketName, String key, Long size) throws IOException {
+    /**
+     * ListBuckets has no pagination in this SDK version, the buckets are written from the single response. The
+     * prefix is applied on the client.
+     */
+    public ListSummary listBuckets(String prefix, Integer limit, OutputStream outputStream) throws IOException {
+
+        // A single page, fetched by the iterator so it is timed like the pages of the paginators
+        Iterable<ListBucketsResponse> pages = () -> Stream.generate(s3Client::listBuckets).limit(1).iterator();
+        ListSummary summary = PaginatedListing.write("buckets", pages,
+                response -> response.buckets().stream().filter(bucket -> prefix == null || bucket.name().startsWith(prefix)).toList(),
+                bucket -> ListEntry.builder().name(bucket.name()).lastModified(bucket.creationDate()).build(),
+                limit, objectMapper, outputStream);
+
+        log.info("List buckets, prefix: {}, items: {}, durationMs: {}", prefix, summary.getItems(), summary.getDurationMs());
+        return summary;
+    }
 
-        Path randomPath = writeRandomFile((int) (size * 1024 * 1024));
+    /**
+     * Pages through ListObjectsV2 and writes every object as NDJSON line.
+     */
+    public ListSummary listObjects(String bucket, String prefix, Integer limit, OutputStream outputStream) throws IOException {
+
+        ListObjectsV2Request request = ListObjectsV2Request.builder().bucket(bucket).prefix(prefix).build();
+        ListSummary summary = PaginatedListing.write("objects:" + bucket, s3Client.listObjectsV2Paginator(request), ListObjectsV2Response::contents,
+                object -> ListEntry.builder().name(object.key()).size(object.size()).lastModified(object.lastModified()).eTag(object.eTag()).build(),
+                limit, objectMapper, outputStream);
+
+        log.info("List objects, bucket: {}, prefix: {}, pages: {}, items: {}, durationMs: {}, itemsPerSecond: {}",
+                bucket, prefix, summary.getPages(), summary.getItems(), summary.getDurationMs(), summary.getItemsPerSecond());
+        return summary;
+    }
+
+    public void putObject(String bucketName, String key, Long size) {
+
+        long bytes = size * 1024L * 1024L;
         PutObjectRequest putObjectRequest = PutObjectRequest.builder().bucket(bucketName).key(key).build();
 
-        PutObjectResponse response = s3Client.putObject(putObjectRequest, RequestBody.fromFile(randomPath.toFile()));
+        PutObjectResponse response = s3Client.putObject(putObjectRequest, payloadGenerator.requestBody(bytes, payloadGenerator.defaultSeed()));
 
         if (response.sdkHttpResponse().isSuccessful()) {
             log.info("Object created, bucketName: {}, key: {}, size: {}", bucketName, key, size);
@@ -74,25 +129,59 @@ public class S3Service {
 
     public void getObject(String bucketName, String key) {
 
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(bucketName).key(key).build();
-
         try {
-            ResponseBytes<GetObjectResponse> objectBytes = s3Client.getObjectAsBytes(getObjectRequest);
-            byte[] data = objectBytes.asByteArray();
-
-            // Write the data to a local file.
-            Path destination = Files.createTempFile("random", ".txt");
-            OutputStream os = new FileOutputStream(destination.toFile());
-            os.write(data);
-            os.close();
-
-            log.info("Object created, bucketName: {}, key: {}", bucketName, key);
-            FileUtils.deleteQuietly(destination.toFile());
+            getObjectStream(bucketName, key, null, StreamSink.FILE);
         } catch (IOException | S3Exception ex) {
             log.error("Could not create object, bucketName: {}, key: {}", bucketName, key);
         }
     }
 
+    /**
+     * Reads the object through the response stream with a fixed-size buffer, so memory usage does not depend on the
+     * object size. The time to first byte is measured from sending the request to reading the first body byte.
+     */
+    public TransferResult getObjectStream(String bucketName, String key, Integer bufferSize, StreamSink sink) throws IOException {
+
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(bucketName).key(key).build();
+        byte[] buffer = new byte[bufferSize != null && bufferSize > 0 ? bufferSize : this.bufferSize];
+        Path destination = sink == StreamSink.FILE ? Files.createTempFile("random", ".txt") : null;
+
+        long start = System.nanoTime();
+        long firstByte = 0;
+        long bytes = 0;
+        try (ResponseInputStream<GetObjectResponse> in = s3Client.getObject(getObjectRequest);
+             FileChannel out = destination != null ? FileChannel.open(destination, StandardOpenOption.WRITE) : null) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (bytes == 0 && read > 0) {
+                    firstByte = System.nanoTime();
+                }
+                bytes += read;
+                if (out != null) {
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    while (byteBuffer.hasRemaining()) {
+                        out.write(byteBuffer);
+                    }
+                }
+            }
+        } finally {
+            if (destination != null) {
+                FileUtils.deleteQuietly(destination.toFile());
+            }
+        }
+        long durationNanos = Math.max(System.nanoTime() - start, 1);
+
+        log.info("Object streamed, bucketName: {}, key: {}, bytes: {}, durationMs: {}", bucketName, key, bytes, durationNanos / 1_000_000);
+        return TransferResult.builder()
+                .bucket(bucketName)
+                .key(key)
+                .bytes(bytes)
+                .durationMs(durationNanos / 1_000_000)
+                .timeToFirstByteMs(firstByte > 0 ? (firstByte - start) / 1_000_000 : 0)
+                .bytesPerSecond(bytes * 1e9 / durationNanos)
+                .build();
+    }
+
     public Long getHead(String bucket, String key) {
 
         HeadObjectResponse response = s3Client.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
@@ -128,36 +217,130 @@ public class S3Service {
         return 0;
     }
 
-    public void uploadObject(String bucketName, String key, int size) throws IOException {
-
-        Path destination = writeRandomFile(size * 1024 * 1024);
-        UploadFileRequest uploadFileRequest =
-                UploadFileRequest.builder()
-                        .putObjectRequest(r -> r.bucket(bucketName).key(key))
-                        .source(destination)
-                        .build();
+    /**
+     * Pages through ListObjectVersions and writes the versions of every page, followed by its delete markers.
+     */
+    public ListSummary listObjectVersions(String bucket, String prefix, Integer limit, OutputStream outputStream) throws IOException {
+
+        ListObjectVersionsRequest request = ListObjectVersionsRequest.builder().bucket(bucket).prefix(prefix).build();
+        ListSummary summary = PaginatedListing.write("objectVersions:" + bucket, s3Client.listObjectVersionsPaginator(request),
+                response -> Stream.concat(
+                        response.versions().stream().map(version -> ListEntry.builder().name(version.key()).versionId(version.versionId())
+                                .latest(version.isLatest()).size(version.size()).lastModified(version.lastModified()).eTag(version.eTag()).build()),
+                        response.deleteMarkers().stream().map(marker -> ListEntry.builder().name(marker.key()).versionId(marker.versionId())
+                                .latest(marker.isLatest()).deleteMarker(true).lastModified(marker.lastModified()).build())).toList(),
+                entry -> entry, limit, objectMapper, outputStream);
+
+        log.info("List object versions, bucket: {}, prefix: {}, pages: {}, items: {}, durationMs: {}, itemsPerSecond: {}",
+                bucket, prefix, summary.getPages(), summary.getItems(), summary.getDurationMs(), summary.getItemsPerSecond());
+        return summary;
+    }
 
-        FileUpload uploadFile = s3TransferManager.uploadFile(uploadFileRequest);
-        uploadFile.completionFuture().join();
+    /**
+     * Uploads a generated payload of the given size in MB. With fromFile the payload is read from a template file, which
+     * is written on the first upload of that size, otherwise it is generated while it is sent.
+     */
+    public TransferResult uploadObject(String bucketName, String key, int size, boolean fromFile, TransferSettings settings) {
+
+        long bytes = size * 1024L * 1024L;
+        PartTimingListener listener = new PartTimingListener(s3TransferManagerFactory.partSize(settings));
+        if (fromFile) {
+            UploadFileRequest uploadFileRequest =
+                    UploadFileRequest.builder()
+                            .putObjectRequest(r -> r.bucket(bucketName).key(key))
+                            .source(payloadGenerator.templateFile(bytes, payloadGenerator.defaultSeed()))
+                            .addTransferListener(listener)
+                            .build();
+            transfer(settings, transferManager -> transferManager.uploadFile(uploadFileRequest).completionFuture());
+        } else {
+            UploadRequest uploadRequest =
+                    UploadRequest.builder()
+                            .putObjectRequest(r -> r.bucket(bucketName).key(key))
+                            .requestBody(payloadGenerator.asyncRequestBody(bytes, payloadGenerator.defaultSeed()))
+                            .addTransferListener(listener)
+                            .build();
+            transfer(settings, transferManager -> transferManager.upload(uploadRequest).completionFuture());
+        }
 
-        log.info("Object uploaded, bucketName: {}, key: {}, size: {}", bucketName, key, size);
-        FileUtils.deleteQuietly(destination.toFile());
+        log.info("Object uploaded, bucketName: {}, key: {}, size: {}, fromFile: {}", bucketName, key, size, fromFile);
+        return toTransferResult(bucketName, key, bytes, listener, settings);
     }
 
-    public void downloadObject(String bucketName, String key) throws IOException {
+    public TransferResult downloadObject(String bucketName, String key, TransferSettings settings) throws IOException {
 
         Path destination = Files.createTempFile("random", ".txt");
+        PartTimingListener listener = new PartTimingListener(s3TransferManagerFactory.partSize(settings));
         DownloadFileRequest downloadFileRequest =
                 DownloadFileRequest.builder()
                         .getObjectRequest(b -> b.bucket(bucketName).key(key))
                         .destination(destination)
+                        .addTransferListener(listener)
                         .build();
 
-        FileDownload downloadFile = s3TransferManager.downloadFile(downloadFileRequest);
-        downloadFile.completionFuture().join();
+        try {
+            CompletedFileDownload completed = transfer(settings, transferManager -> transferManager.downloadFile(downloadFileRequest).completionFuture());
+
+            log.info("Object downloaded, bucketName: {}, key: {}", bucketName, key);
+            return toTransferResult(bucketName, key, completed.response().contentLength(), listener, settings);
+        } finally {
+            FileUtils.deleteQuietly(destination.toFile());
+        }
+    }
 
-        log.info("Object downloaded, bucketName: {}, key: {}", bucketName, key);
-        FileUtils.deleteQuietly(destination.toFile());
+    /**
+     * Uploads a directory of generated files, each file gets its own seed.
+     */
+    public DirectoryTransferResult uploadDirectory(String bucketName, String prefix, int files, long fileSizeKb, TransferSettings settings) throws IOException {
+
+        Path source = Files.createTempDirectory("awsmock-upload");
+        try {
+            long fileSize = fileSizeKb * 1024L;
+            for (int i = 0; i < files; i++) {
+                payloadGenerator.writeFile(source.resolve("file-" + i + ".txt"), fileSize, payloadGenerator.defaultSeed() + i);
+            }
+
+            long start = System.nanoTime();
+            CompletedDirectoryUpload completed = transfer(settings, transferManager -> transferManager
+                    .uploadDirectory(UploadDirectoryRequest.builder().source(source).bucket(bucketName).s3Prefix(prefix).build())
+                    .completionFuture());
+            long durationNanos = Math.max(System.nanoTime() - start, 1);
+
+            List<BatchFailure> failures = completed.failedTransfers().stream()
+                    .map(f -> BatchFailure.of(f.request().source().getFileName().toString(), f.exception()))
+                    .toList();
+            long bytes = (files - failures.size()) * fileSize;
+            log.info("Directory uploaded, bucketName: {}, prefix: {}, files: {}, failed: {}", bucketName, prefix, files, failures.size());
+            return toDirectoryTransferResult(bucketName, prefix, files, bytes, durationNanos, failures);
+        } finally {
+            FileUtils.deleteQuietly(source.toFile());
+        }
+    }
+
+    public DirectoryTransferResult downloadDirectory(String bucketName, String prefix, TransferSettings settings) throws IOException {
+
+        Path destination = Files.createTempDirectory("awsmock-download");
+        try {
+            long start = System.nanoTime();
+            CompletedDirectoryDownload completed = transfer(settings, transferManager -> transferManager
+                    .downloadDirectory(DownloadDirectoryRequest.builder().destination(destination).bucket(bucketName).listObjectsV2RequestTransformer(r -> r.prefix(prefix)).build())
+                    .completionFuture());
+            long durationNanos = Math.max(System.nanoTime() - start, 1);
+
+            List<BatchFailure> failures = completed.failedTransfers().stream()
+                    .map(f -> BatchFailure.of(f.request().getObjectRequest().key(), f.exception()))
+                    .toList();
+            int files;
+            long bytes;
+            try (Stream<Path> paths = Files.walk(destination)) {
+                List<Path> downloaded = paths.filter(Files::isRegularFile).toList();
+                files = downloaded.size() + failures.size();
+                bytes = downloaded.stream().mapToLong(path -> path.toFile().length()).sum();
+            }
+            log.info("Directory downloaded, bucketName: {}, prefix: {}, files: {}, failed: {}", bucketName, prefix, files, failures.size());
+            return toDirectoryTransferResult(bucketName, prefix, files, bytes, durationNanos, failures);
+        } finally {
+            FileUtils.deleteQuietly(destination.toFile());
+        }
     }
 
     public void copyObject(String sourceBucket, String sourceKey, String destinationBucket, String destinationKey) {
@@ -196,31 +379,69 @@ public class S3Service {
         }
     }
 
-    public void deleteObjects(String bucket, String key1, String key2) {
+    public BatchResult deleteObjects(String bucket, List<String> keys, Integer maxInFlight) {
+
+        long start = System.nanoTime();
+        int batchCount = (keys.size() + MAX_DELETE_BATCH_SIZE - 1) / MAX_DELETE_BATCH_SIZE;
+        List<List<BatchFailure>> results = InFlightWindow.run(batchCount, batch -> {
+            List<String> batchKeys = keys.subList(batch * MAX_DELETE_BATCH_SIZE, Math.min((batch + 1) * MAX_DELETE_BATCH_SIZE, keys.size()));
+            List<ObjectIdentifier> objectIdentifiers = batchKeys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList();
+            DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+                    .bucket(bucket)
+                    .delete(d -> d.objects(objectIdentifiers).quiet(true))
+                    .build();
+            return s3AsyncClient.deleteObjects(deleteObjectsRequest)
+                    .handle((response, throwable) -> throwable == null ? toBatchFailures(response.errors()) : toBatchFailures(batchKeys, throwable));
+        }, InFlightWindow.maxInFlight(maxInFlight, this.maxInFlight));
+
+        BatchResult batchResult = BatchResult.of(keys.size(), batchCount, start, results.stream().flatMap(List::stream).toList());
+        if (batchResult.getFailed() == 0) {
+            log.info("Objects deleted, bucket: {}, count: {}, durationMs: {}", bucket, batchResult.getSuccessful(), batchResult.getDurationMs());
+        } else {
+            log.error("Could not delete objects, bucket: {}, successful: {}, failed: {}", bucket, batchResult.getSuccessful(), batchResult.getFailed());
+        }
+        return batchResult;
+    }
 
-        List<ObjectIdentifier> objectIdentifiers = new ArrayList<>();
-        objectIdentifiers.add(ObjectIdentifier.builder().key(key1).build());
-        objectIdentifiers.add(ObjectIdentifier.builder().key(key2).build());
+    /**
+     * Runs the transfer on the default transfer manager or on the factory's manager for non-default settings and waits
+     * for its completion.
+     */
+    private <T> T transfer(TransferSettings settings, Function<S3TransferManager, CompletableFuture<T>> transfer) {
+        return settings == null || settings.isDefault() ? transfer.apply(s3TransferManager).join() : s3TransferManagerFactory.transfer(settings, transfer);
+    }
 
-        DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
-                .bucket(bucket)
-                .delete(d -> d.objects(objectIdentifiers).build())
+    private TransferResult toTransferResult(String bucketName, String key, long bytes, PartTimingListener listener, TransferSettings settings) {
+        long durationNanos = Math.max(listener.elapsedNanos(), 1);
+        return TransferResult.builder()
+                .bucket(bucketName)
+                .key(key)
+                .bytes(bytes)
+                .durationMs(durationNanos / 1_000_000)
+                .bytesPerSecond(bytes * 1e9 / durationNanos)
+                .partSize(s3TransferManagerFactory.partSize(settings))
+                .parts(listener.parts())
                 .build();
+    }
 
-        DeleteObjectsResponse response = s3Client.deleteObjects(deleteObjectsRequest);
-        if (response.sdkHttpResponse().isSuccessful()) {
-            log.info("Objects deleted, bucket: {}, key1: {}, key2: {}", bucket, key1, key2);
-        } else {
-            log.error("Could not delete objects, bucket: {}, key1: {}, key2: {}", bucket, key1, key2);
-        }
+    private static DirectoryTransferResult toDirectoryTransferResult(String bucketName, String prefix, int files, long bytes, long durationNanos, List<BatchFailure> failures) {
+        return DirectoryTransferResult.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .files(files)
+                .failed(failures.size())
+                .bytes(bytes)
+                .durationMs(durationNanos / 1_000_000)
+                .bytesPerSecond(bytes * 1e9 / durationNanos)
+                .failures(failures)
+                .build();
     }
 
-    private Path writeRandomFile(int length) throws IOException {
-        Path destination = Files.createTempFile("random", ".txt");
-        try (FileWriter writer = new FileWriter(destination.toFile())) {
-            String generatedString = RandomStringUtils.random(length, true, true);
-            writer.write(generatedString);
-        }
-        return destination;
+    private static List<BatchFailure> toBatchFailures(List<S3Error> errors) {
+        return errors.stream().map(e -> BatchFailure.builder().id(e.key()).code(e.code()).message(e.message()).build()).toList();
+    }
+
+    private static List<BatchFailure> toBatchFailures(List<String> keys, Throwable throwable) {
+        return keys.stream().map(key -> BatchFailure.of(key, throwable)).toList();
     }
 }
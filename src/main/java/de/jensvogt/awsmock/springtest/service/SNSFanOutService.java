@@ -0,0 +1,242 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.jensvogt.awsmock.springtest.codec.JsonCodec;
+import de.jensvogt.awsmock.springtest.dto.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Measures the SNS to SQS fan-out. Timestamped messages are published to a topic, which is subscribed to the given
+ * queues for the duration of the run. Every queue is drained by its own poller, which records the delivery latency of
+ * the messages of this run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SNSFanOutService {
+
+    private final SNSService snsService;
+
+    @Lazy
+    private final SqsClient sqsClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final JsonCodec<FanOutMessage> fanOutMessageCodec;
+
+    @Value("${de.jensvogt.awsmock.sns.fan-out.timeout-seconds}")
+    private int timeoutSeconds;
+
+    public FanOutResult fanOut(String topicArn, List<String> queueUrls, int count, Integer maxInFlight, Integer timeoutSeconds) {
+
+        String runId = UUID.randomUUID().toString();
+        log.info("Received fan-out request, runId: {}, topicArn: {}, queues: {}, count: {}", runId, topicArn, queueUrls.size(), count);
+
+        List<String> subscriptionArns = new ArrayList<>(queueUrls.size());
+        List<Subscriber> subscribers = new ArrayList<>(queueUrls.size());
+        try {
+            for (String queueUrl : queueUrls) {
+                subscriptionArns.add(snsService.subscribe(topicArn, queueUrl, "sqs"));
+                Subscriber subscriber = new Subscriber(queueUrl, runId, count);
+                subscribers.add(subscriber);
+                subscriber.start();
+            }
+
+            long publishStart = System.nanoTime();
+            BatchResult publishResult = snsService.publishBatch(topicArn, count, sequence -> toJson(new FanOutMessage(runId, sequence, nowMicros())), maxInFlight);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds != null ? timeoutSeconds : this.timeoutSeconds);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.await(publishResult.getSuccessful(), deadline);
+            }
+
+            List<SubscriberStats> stats = subscribers.stream().map(subscriber -> subscriber.stats(publishResult.getSuccessful(), publishStart)).toList();
+            stats.forEach(s -> log.info("Fan-out subscriber, runId: {}, queueUrl: {}, received: {}, missing: {}, p99Ms: {}",
+                    runId, s.getQueueUrl(), s.getReceived(), s.getMissing(), s.getLatency().getP99Ms()));
+            return FanOutResult.builder()
+                    .runId(runId)
+                    .topicArn(topicArn)
+                    .publish(publishResult)
+                    .subscribers(stats)
+                    .build();
+        } finally {
+            subscribers.forEach(Subscriber::stop);
+            subscriptionArns.stream().filter(StringUtils::isNotBlank).forEach(snsService::unsubscribe);
+        }
+    }
+
+    private String toJson(FanOutMessage fanOutMessage) {
+        try {
+            return fanOutMessageCodec.encode(fanOutMessage);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long nowMicros() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + now.getNano() / 1000;
+    }
+
+    private class Subscriber {
+
+        private final String queueUrl;
+        private final String runId;
+        private final BitSet sequences;
+        private final Histogram latency = new Histogram(3);
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition progress = lock.newCondition();
+        private long received;
+        private long duplicates;
+        private long lastReceiveNanos;
+        private volatile boolean running;
+        private Thread poller;
+
+        Subscriber(String queueUrl, String runId, int count) {
+            this.queueUrl = queueUrl;
+            this.runId = runId;
+            this.sequences = new BitSet(count);
+        }
+
+        void start() {
+            running = true;
+            poller = Thread.ofVirtual().name("fan-out-" + queueUrl).start(this::poll);
+        }
+
+        /**
+         * Waits until the expected number of messages has been received or the deadline has passed.
+         */
+        void await(long expected, long deadline) {
+            lock.lock();
+            try {
+                long remaining;
+                while (received < expected && (remaining = deadline - System.nanoTime()) > 0) {
+                    progress.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void stop() {
+            running = false;
+            try {
+                poller.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        SubscriberStats stats(long expected, long publishStart) {
+            lock.lock();
+            try {
+                return SubscriberStats.builder()
+                        .queueUrl(queueUrl)
+                        .received(received)
+                        .missing(Math.max(expected - received, 0))
+                        .duplicates(duplicates)
+                        .perSecond(received > 0 ? received * 1e9 / Math.max(lastReceiveNanos - publishStart, 1) : 0)
+                        .latency(LatencySummary.of(latency))
+                        .build();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void poll() {
+
+            ReceiveMessageRequest request = ReceiveMessageRequest.builder().queueUrl(queueUrl).maxNumberOfMessages(10).waitTimeSeconds(1).build();
+            while (running) {
+                try {
+                    List<Message> messages = sqsClient.receiveMessage(request).messages();
+                    long receivedAtMicros = nowMicros();
+                    List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(messages.size());
+                    for (Message message : messages) {
+                        // A malformed message must not end the poller, its run would wait for the deadline
+                        try {
+                            FanOutMessage fanOutMessage = parse(message.body());
+                            if (fanOutMessage != null && runId.equals(fanOutMessage.getRunId())) {
+                                record(fanOutMessage, receivedAtMicros);
+                                entries.add(DeleteMessageBatchRequestEntry.builder().id(String.valueOf(entries.size())).receiptHandle(message.receiptHandle()).build());
+                            }
+                        } catch (RuntimeException ex) {
+                            log.warn("Could not handle fan-out message, queueUrl: {}, messageId: {}, error: {}", queueUrl, message.messageId(), ex.getMessage());
+                        }
+                    }
+                    if (!entries.isEmpty()) {
+                        sqsClient.deleteMessageBatch(DeleteMessageBatchRequest.builder().queueUrl(queueUrl).entries(entries).build());
+                    }
+                } catch (SdkException ex) {
+                    if (running) {
+                        log.error("Could not receive fan-out messages, queueUrl: {}, error: {}", queueUrl, ex.getMessage());
+                        pause();
+                    }
+                }
+            }
+        }
+
+        private void pause() {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void record(FanOutMessage fanOutMessage, long receivedAtMicros) {
+            lock.lock();
+            try {
+                if (sequences.get(fanOutMessage.getSequence())) {
+                    duplicates++;
+                    return;
+                }
+                sequences.set(fanOutMessage.getSequence());
+                latency.recordValue(Math.max(receivedAtMicros - fanOutMessage.getSentAtMicros(), 0));
+                received++;
+                lastReceiveNanos = System.nanoTime();
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Without raw message delivery the queue receives the SNS notification, which carries the published message
+         * in its Message field.
+         */
+        private FanOutMessage parse(String body) {
+            try {
+                JsonNode node = objectMapper.readTree(body);
+                if (node.has("Type") && node.has("Message")) {
+                    return fanOutMessageCodec.decode(node.get("Message").asText());
+                }
+                return objectMapper.treeToValue(node, FanOutMessage.class);
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+        }
+    }
+}
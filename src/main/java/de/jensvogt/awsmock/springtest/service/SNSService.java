@@ -1,18 +1,48 @@
 package de.jensvogt.awsmock.springtest.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.jensvogt.awsmock.springtest.dto.BatchFailure;
+import de.jensvogt.awsmock.springtest.dto.BatchResult;
+import de.jensvogt.awsmock.springtest.dto.ListEntry;
+import de.jensvogt.awsmock.springtest.dto.ListSummary;
+import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import de.jensvogt.awsmock.springtest.util.InFlightWindow;
+import de.jensvogt.awsmock.springtest.util.PaginatedListing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
 import software.amazon.awssdk.services.sns.model.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SNSService {
 
+    private static final int MAX_BATCH_SIZE = 10;
+
+    @Lazy
     private final SnsClient snsClient;
 
+    @Lazy
+    private final SnsAsyncClient snsAsyncClient;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${de.jensvogt.awsmock.sns.batch.max-in-flight}")
+    private int maxInFlight;
+
     public String createTopic(String name) {
 
         String topicArn = "";
@@ -39,6 +69,19 @@ public class SNSService {
         return count;
     }
 
+    /**
+     * Pages through ListTopics, 100 topics per page.
+     */
+    public ListSummary listTopics(Integer limit, OutputStream outputStream) throws IOException {
+
+        ListSummary summary = PaginatedListing.write("topics", snsClient.listTopicsPaginator(ListTopicsRequest.builder().build()), ListTopicsResponse::topics,
+                topic -> ListEntry.builder().name(topic.topicArn()).build(), limit, objectMapper, outputStream);
+
+        log.info("List topics, pages: {}, items: {}, durationMs: {}, itemsPerSecond: {}",
+                summary.getPages(), summary.getItems(), summary.getDurationMs(), summary.getItemsPerSecond());
+        return summary;
+    }
+
     public String subscribe(String topicArn, String queueUrl, String protocol) {
 
         SubscribeResponse response = snsClient.subscribe(SubscribeRequest.builder().topicArn(topicArn).protocol(protocol).endpoint(queueUrl).build());
@@ -70,4 +113,94 @@ public class SNSService {
             log.error("Could not delete topic, topicArn: {}", topicArn);
         }
     }
+
+    public String publish(String topicArn, TestMessage testMessage) throws JsonProcessingException {
+
+        String jsonString = objectMapper.writeValueAsString(testMessage);
+        PublishResponse response = snsClient.publish(PublishRequest.builder().topicArn(topicArn).message(jsonString).build());
+        if (response.sdkHttpResponse().isSuccessful()) {
+            log.info("Message published, topicArn: {}, messageId: {}", topicArn, response.messageId());
+            return response.messageId();
+        } else {
+            log.error("Could not publish message, topicArn: {}", topicArn);
+        }
+        return "";
+    }
+
+    public CompletableFuture<String> publishAsync(String topicArn, TestMessage testMessage) throws JsonProcessingException {
+
+        String jsonString = objectMapper.writeValueAsString(testMessage);
+        return snsAsyncClient.publish(PublishRequest.builder().topicArn(topicArn).message(jsonString).build())
+                .thenApply(response -> {
+                    if (!response.sdkHttpResponse().isSuccessful()) {
+                        log.error("Could not publish message async, topicArn: {}", topicArn);
+                        return "";
+                    }
+                    log.info("Message published async, topicArn: {}, messageId: {}", topicArn, response.messageId());
+                    return response.messageId();
+                });
+    }
+
+    /**
+     * Publishes the message count times with single Publish calls, keeping up to maxInFlight calls in flight.
+     */
+    public BatchResult publish(String topicArn, TestMessage testMessage, int count, Integer maxInFlight) throws JsonProcessingException {
+
+        log.info("Received publish request, topicArn: {}, count: {}, testMessage: {}", topicArn, count, testMessage);
+        String jsonString = objectMapper.writeValueAsString(testMessage);
+
+        long start = System.nanoTime();
+        List<List<BatchFailure>> results = InFlightWindow.run(count, index ->
+                snsAsyncClient.publish(PublishRequest.builder().topicArn(topicArn).message(jsonString).build())
+                        .handle((response, throwable) -> throwable == null ? List.<BatchFailure>of() : toBatchFailures(index, index + 1, throwable)),
+                InFlightWindow.maxInFlight(maxInFlight, this.maxInFlight));
+        BatchResult batchResult = BatchResult.of(count, count, start, results.stream().flatMap(List::stream).toList());
+
+        log.info("Messages published, topicArn: {}, successful: {}, failed: {}, durationMs: {}, perSecond: {}",
+                topicArn, batchResult.getSuccessful(), batchResult.getFailed(), batchResult.getDurationMs(), batchResult.getPerSecond());
+        return batchResult;
+    }
+
+    public BatchResult publishBatch(String topicArn, TestMessage testMessage, int count, Integer maxInFlight) throws JsonProcessingException {
+
+        log.info("Received publish batch request, topicArn: {}, count: {}, testMessage: {}", topicArn, count, testMessage);
+        String jsonString = objectMapper.writeValueAsString(testMessage);
+        return publishBatch(topicArn, count, index -> jsonString, maxInFlight);
+    }
+
+    /**
+     * Publishes count messages with PublishBatch calls of up to ten entries. The message body is created when the
+     * batch is sent, so it may contain a send timestamp.
+     */
+    BatchResult publishBatch(String topicArn, int count, IntFunction<String> message, Integer maxInFlight) {
+
+        long start = System.nanoTime();
+        int batchCount = (count + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE;
+        List<List<BatchFailure>> results = InFlightWindow.run(batchCount, batch -> {
+            int first = batch * MAX_BATCH_SIZE;
+            int last = Math.min(first + MAX_BATCH_SIZE, count);
+            // Entries are built in the chain, so a failing message function fails this batch only
+            return CompletableFuture.completedFuture(batch)
+                    .thenCompose(b -> {
+                        List<PublishBatchRequestEntry> entries = new ArrayList<>(last - first);
+                        for (int i = first; i < last; i++) {
+                            entries.add(PublishBatchRequestEntry.builder().id(String.valueOf(i)).message(message.apply(i)).build());
+                        }
+                        return snsAsyncClient.publishBatch(PublishBatchRequest.builder().topicArn(topicArn).publishBatchRequestEntries(entries).build());
+                    })
+                    .handle((response, throwable) -> throwable == null
+                            ? response.failed().stream().map(BatchFailure::of).toList()
+                            : toBatchFailures(first, last, throwable));
+        }, InFlightWindow.maxInFlight(maxInFlight, this.maxInFlight));
+        BatchResult batchResult = BatchResult.of(count, batchCount, start, results.stream().flatMap(List::stream).toList());
+
+        log.info("Message batch published, topicArn: {}, successful: {}, failed: {}, durationMs: {}, perSecond: {}",
+                topicArn, batchResult.getSuccessful(), batchResult.getFailed(), batchResult.getDurationMs(), batchResult.getPerSecond());
+        return batchResult;
+    }
+
+    private static List<BatchFailure> toBatchFailures(int first, int last, Throwable throwable) {
+        log.error("Publish failed, first: {}, last: {}, error: {}", first, last - 1, BatchFailure.cause(throwable).getMessage());
+        return BatchFailure.range(first, last, throwable);
+    }
 }
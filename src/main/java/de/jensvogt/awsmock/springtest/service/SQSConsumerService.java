@@ -0,0 +1,99 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import de.jensvogt.awsmock.springtest.codec.JsonCodec;
+import de.jensvogt.awsmock.springtest.dto.ConsumerStatus;
+import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SQSConsumerService {
+
+    @Lazy
+    private final SqsClient sqsClient;
+
+    private final JsonCodec<TestMessage> testMessageCodec;
+
+    private final Map<String, SqsConsumer> consumers = new ConcurrentHashMap<>();
+
+    @Value("${de.jensvogt.awsmock.sqs.consumer.pollers}")
+    private int pollers;
+
+    @Value("${de.jensvogt.awsmock.sqs.consumer.handler-threads}")
+    private int handlerThreads;
+
+    @Value("${de.jensvogt.awsmock.sqs.consumer.handler-queue-size}")
+    private int handlerQueueSize;
+
+    @Value("${de.jensvogt.awsmock.sqs.consumer.wait-time-seconds}")
+    private int waitTimeSeconds;
+
+    @Value("${de.jensvogt.awsmock.sqs.consumer.ack-batch-size}")
+    private int ackBatchSize;
+
+    @Value("${de.jensvogt.awsmock.sqs.consumer.ack-flush-interval-ms}")
+    private long ackFlushIntervalMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public ConsumerStatus start(String queueUrl, Integer pollers, Integer handlerThreads, Integer ackBatchSize, Long ackFlushIntervalMs) {
+
+        int pollerCount = pollers != null ? pollers : this.pollers;
+        int handlerCount = handlerThreads != null ? handlerThreads : this.handlerThreads;
+        long flushIntervalMs = ackFlushIntervalMs != null ? ackFlushIntervalMs : this.ackFlushIntervalMs;
+        if (pollerCount <= 0 || handlerCount <= 0 || flushIntervalMs <= 0) {
+            throw new IllegalArgumentException("pollers, handlerThreads and ackFlushIntervalMs must be positive");
+        }
+
+        // Checking and replacing under the map's lock, so concurrent starts for the same queue create one consumer
+        SqsConsumer consumer = consumers.compute(queueUrl, (key, existing) -> {
+            if (existing != null && existing.isRunning()) {
+                log.warn("Consumer already running, queueUrl: {}", queueUrl);
+                return existing;
+            }
+            SqsConsumer created = new SqsConsumer(sqsClient, testMessageCodec, queueUrl,
+                    pollerCount,
+                    handlerCount,
+                    handlerQueueSize,
+                    waitTimeSeconds,
+                    ackBatchSize != null ? ackBatchSize : this.ackBatchSize,
+                    flushIntervalMs,
+                    virtualThreads ? Thread.ofVirtual().name("sqs-handler-", 0).factory() : Thread.ofPlatform().name("sqs-handler-", 0).factory());
+            created.start();
+            return created;
+        });
+        return consumer.status();
+    }
+
+    public ConsumerStatus stop(String queueUrl) {
+
+        SqsConsumer consumer = consumers.get(queueUrl);
+        if (consumer == null) {
+            log.error("No consumer found, queueUrl: {}", queueUrl);
+            return null;
+        }
+        consumer.stop();
+        return consumer.status();
+    }
+
+    public List<ConsumerStatus> status() {
+        return consumers.values().stream().map(SqsConsumer::status).toList();
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        consumers.values().forEach(SqsConsumer::stop);
+    }
+}
@@ -0,0 +1,106 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import de.jensvogt.awsmock.springtest.codec.JsonCodec;
+import de.jensvogt.awsmock.springtest.dto.ContainerStatus;
+import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import io.awspring.cloud.sqs.listener.BackPressureMode;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SQSContainerService {
+
+    @Lazy
+    private final SqsAsyncClient sqsAsyncClient;
+
+    private final JsonCodec<TestMessage> testMessageCodec;
+
+    private final Map<String, SqsContainerConsumer> containers = new ConcurrentHashMap<>();
+
+    @Value("${de.jensvogt.awsmock.sqs.container.max-concurrent-messages}")
+    private int maxConcurrentMessages;
+
+    @Value("${de.jensvogt.awsmock.sqs.container.max-messages-per-poll}")
+    private int maxMessagesPerPoll;
+
+    @Value("${de.jensvogt.awsmock.sqs.container.poll-timeout-seconds}")
+    private long pollTimeoutSeconds;
+
+    @Value("${de.jensvogt.awsmock.sqs.container.back-pressure-mode}")
+    private BackPressureMode backPressureMode;
+
+    @Value("${de.jensvogt.awsmock.sqs.container.acknowledgement-interval-ms}")
+    private long acknowledgementIntervalMs;
+
+    @Value("${de.jensvogt.awsmock.sqs.container.acknowledgement-threshold}")
+    private int acknowledgementThreshold;
+
+    public ContainerStatus start(String queueUrl, Integer maxConcurrentMessages, Integer maxMessagesPerPoll, Long pollTimeoutSeconds,
+                                 BackPressureMode backPressureMode, Long acknowledgementIntervalMs, Integer acknowledgementThreshold) {
+
+        int concurrentMessages = maxConcurrentMessages != null ? maxConcurrentMessages : this.maxConcurrentMessages;
+        int messagesPerPoll = maxMessagesPerPoll != null ? maxMessagesPerPoll : this.maxMessagesPerPoll;
+        long timeoutSeconds = pollTimeoutSeconds != null ? pollTimeoutSeconds : this.pollTimeoutSeconds;
+        long intervalMs = acknowledgementIntervalMs != null ? acknowledgementIntervalMs : this.acknowledgementIntervalMs;
+        int threshold = acknowledgementThreshold != null ? acknowledgementThreshold : this.acknowledgementThreshold;
+        if (concurrentMessages <= 0 || messagesPerPoll <= 0 || timeoutSeconds <= 0) {
+            throw new IllegalArgumentException("maxConcurrentMessages, maxMessagesPerPoll and pollTimeoutSeconds must be positive");
+        }
+        if (intervalMs < 0 || threshold < 0) {
+            throw new IllegalArgumentException("acknowledgementIntervalMs and acknowledgementThreshold must not be negative");
+        }
+
+        // The map only reserves the queue, the container is started after compute() has returned, as starting resolves
+        // the queue attributes with blocking calls
+        SqsContainerConsumer[] created = new SqsContainerConsumer[1];
+        SqsContainerConsumer container = containers.compute(queueUrl, (key, existing) -> {
+            if (existing != null && !existing.isStopped()) {
+                log.warn("Container already running, queueUrl: {}", queueUrl);
+                return existing;
+            }
+            created[0] = new SqsContainerConsumer(sqsAsyncClient, testMessageCodec, queueUrl, concurrentMessages, messagesPerPoll, timeoutSeconds,
+                    backPressureMode != null ? backPressureMode : this.backPressureMode, intervalMs, threshold);
+            return created[0];
+        });
+        if (container == created[0]) {
+            try {
+                container.start();
+            } catch (RuntimeException ex) {
+                containers.remove(queueUrl, container);
+                throw ex;
+            }
+        }
+        return container.status();
+    }
+
+    public ContainerStatus stop(String queueUrl) {
+
+        SqsContainerConsumer container = containers.get(queueUrl);
+        if (container == null) {
+            log.error("No container found, queueUrl: {}", queueUrl);
+            return null;
+        }
+        container.stop();
+        return container.status();
+    }
+
+    public List<ContainerStatus> status() {
+        return containers.values().stream().map(SqsContainerConsumer::status).toList();
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        containers.values().forEach(SqsContainerConsumer::stop);
+    }
+}
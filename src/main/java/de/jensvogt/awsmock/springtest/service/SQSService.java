@@ -2,45 +2,75 @@ package de.jensvogt.awsmock.springtest.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.jensvogt.awsmock.springtest.codec.JsonCodec;
+import de.jensvogt.awsmock.springtest.dto.BatchFailure;
+import de.jensvogt.awsmock.springtest.dto.BatchResult;
+import de.jensvogt.awsmock.springtest.dto.CacheStats;
+import de.jensvogt.awsmock.springtest.dto.ListEntry;
+import de.jensvogt.awsmock.springtest.dto.ListSummary;
 import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import de.jensvogt.awsmock.springtest.util.InFlightWindow;
+import de.jensvogt.awsmock.springtest.util.PaginatedListing;
+import io.awspring.cloud.sqs.operations.SendBatchOperationFailedException;
 import io.awspring.cloud.sqs.operations.SendResult;
 import io.awspring.cloud.sqs.operations.SqsTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SQSService {
 
-    private static final int VISIBILITY_TIMEOUT = 99;
+    private static final int MAX_BATCH_SIZE = 10;
 
+    private static final int MAX_LIST_PAGE_SIZE = 1000;
+
+    @Lazy
     private final SqsClient sqsClient;
 
+    @Lazy
+    private final SqsAsyncClient sqsAsyncClient;
+
     private final ObjectMapper objectMapper;
 
+    private final JsonCodec<TestMessage> testMessageCodec;
+
     private final SqsTemplate sqsTemplate;
 
-    public String createQueue(String queueName) {
+    private final QueueUrlCache queueUrlCache;
 
-        Map<QueueAttributeName, String> attributes = new HashMap<>();
-        attributes.put(QueueAttributeName.VISIBILITY_TIMEOUT, String.valueOf(VISIBILITY_TIMEOUT));
+    private final RequestTemplates requestTemplates;
+
+    @Value("${de.jensvogt.awsmock.sqs.batch.max-in-flight}")
+    private int maxInFlight;
 
-        Map<String, String> tags = new HashMap<>();
-        tags.put("tagName", "tagValue");
+    public String createQueue(String queueName) {
 
         String queueUrl = null;
-        CreateQueueResponse response = sqsClient.createQueue(CreateQueueRequest.builder().queueName(queueName).attributes(attributes).tags(tags).build());
+        CreateQueueResponse response = sqsClient.createQueue(requestTemplates.createQueue(queueName));
         if (response.sdkHttpResponse().isSuccessful()) {
             queueUrl = response.queueUrl();
+            queueUrlCache.put(queueName, queueUrl);
             log.info("Queue created queueUrl: {}", queueUrl);
         } else {
             log.error("Could not create queue, queueName: {}", queueName);
@@ -98,13 +128,33 @@ public class SQSService {
         }
     }
 
+    /**
+     * Pages through ListQueues, which only returns a next token when the page size is set.
+     */
+    public ListSummary listQueues(String prefix, Integer limit, OutputStream outputStream) throws IOException {
+
+        ListQueuesRequest request = ListQueuesRequest.builder().queueNamePrefix(prefix).maxResults(MAX_LIST_PAGE_SIZE).build();
+        ListSummary summary = PaginatedListing.write("queues", sqsClient.listQueuesPaginator(request), ListQueuesResponse::queueUrls,
+                queueUrl -> ListEntry.builder().name(queueUrl).build(), limit, objectMapper, outputStream);
+
+        log.info("List queues, prefix: {}, pages: {}, items: {}, durationMs: {}, itemsPerSecond: {}",
+                prefix, summary.getPages(), summary.getItems(), summary.getDurationMs(), summary.getItemsPerSecond());
+        return summary;
+    }
+
     public String getQueueUrl(String queueName) {
 
+        String queueUrl = queueUrlCache.get(queueName);
+        if (queueUrl != null) {
+            return queueUrl;
+        }
+
         GetQueueUrlResponse response = sqsClient.getQueueUrl(GetQueueUrlRequest.builder().queueName(queueName).build());
 
         if (response.sdkHttpResponse().isSuccessful()) {
 
             log.info("Get queue URL, url: {}", response.queueUrl());
+            queueUrlCache.put(queueName, response.queueUrl());
             return response.queueUrl();
 
         } else {
@@ -144,7 +194,7 @@ public class SQSService {
     public String sendMessage(String queueUrl, TestMessage testMessage) throws JsonProcessingException {
 
         String messageId = null;
-        String jsonString = objectMapper.writeValueAsString(testMessage);
+        String jsonString = testMessageCodec.encode(testMessage);
         SendMessageResponse response = sqsClient.sendMessage(SendMessageRequest.builder().queueUrl(queueUrl).messageBody(jsonString).build());
         if (response.sdkHttpResponse().isSuccessful()) {
             messageId = response.messageId();
@@ -155,6 +205,50 @@ public class SQSService {
         return messageId;
     }
 
+    public CompletableFuture<String> sendMessageAsync(String queueUrl, TestMessage testMessage) {
+
+        return sqsAsyncClient.sendMessage(SendMessageRequest.builder().queueUrl(queueUrl).messageBody(toJson(testMessage)).build())
+                .thenApply(response -> {
+                    if (!response.sdkHttpResponse().isSuccessful()) {
+                        log.error("Could not send message async, queueUrl: {}", queueUrl);
+                        return null;
+                    }
+                    log.info("Send message async, queueUrl: {}, id: {}", queueUrl, response.messageId());
+                    return response.messageId();
+                });
+    }
+
+    public BatchResult sendMessageBatch(String queueUrl, List<TestMessage> testMessages, Integer maxInFlight) {
+
+        log.info("Received send message batch request, queueUrl: {}, count: {}", queueUrl, testMessages.size());
+        return sendMessageBatch(queueUrl, testMessages.size(), index -> toJson(testMessages.get(index)), maxInFlight);
+    }
+
+    public BatchResult sendMessageBatch(String queueUrl, TestMessage testMessage, int count, Integer maxInFlight) throws JsonProcessingException {
+
+        log.info("Received send message batch request, queueUrl: {}, count: {}, testMessage: {}", queueUrl, count, testMessage);
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+        String jsonString = testMessageCodec.encode(testMessage);
+        return sendMessageBatch(queueUrl, count, index -> jsonString, maxInFlight);
+    }
+
+    private BatchResult sendMessageBatch(String queueUrl, int count, IntFunction<String> messageBody, Integer maxInFlight) {
+
+        BatchResult batchResult = runBatches(count, maxInFlight, (first, last) -> {
+            List<SendMessageBatchRequestEntry> entries = new ArrayList<>(last - first);
+            for (int i = first; i < last; i++) {
+                entries.add(SendMessageBatchRequestEntry.builder().id(String.valueOf(i)).messageBody(messageBody.apply(i)).build());
+            }
+            return sqsAsyncClient.sendMessageBatch(SendMessageBatchRequest.builder().queueUrl(queueUrl).entries(entries).build())
+                    .thenApply(SendMessageBatchResponse::failed);
+        });
+        log.info("Send message batch, queueUrl: {}, successful: {}, failed: {}, durationMs: {}, perSecond: {}",
+                queueUrl, batchResult.getSuccessful(), batchResult.getFailed(), batchResult.getDurationMs(), batchResult.getPerSecond());
+        return batchResult;
+    }
+
     public void sendSqsTemplate(TestMessage testMessage) {
 
         log.info("Received send message via sqs template request, testMessage: {}", testMessage);
@@ -164,35 +258,71 @@ public class SQSService {
 
     }
 
-    /*
-    public void sendManySqsTemplate(TestMessage testMessage) throws JsonProcessingException {
+    public BatchResult sendManySqsTemplate(String queueUrl, List<TestMessage> testMessages, Integer maxInFlight) {
 
-        log.info("Received send message via sqs template request, testMessage: {}", testMessage);
+        log.info("Received send many via sqs template request, queueUrl: {}, count: {}", queueUrl, testMessages.size());
+        long start = System.nanoTime();
+        int batchCount = (testMessages.size() + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE;
+        List<List<BatchFailure>> results = InFlightWindow.run(batchCount, batch -> sendManyBatch(queueUrl, testMessages, batch), InFlightWindow.maxInFlight(maxInFlight, this.maxInFlight));
+        return logSendMany(queueUrl, BatchResult.of(testMessages.size(), batchCount, start, results.stream().flatMap(List::stream).toList()));
+    }
 
-        List<Message> messages = new ArrayList<>();
-        for (int i = 0; i < 100; i++) {
-            Message message = Message.builder().body(objectMapper.writeValueAsString(testMessage)).build();
+    public CompletableFuture<BatchResult> sendManySqsTemplateAsync(String queueUrl, List<TestMessage> testMessages, Integer maxInFlight) {
+
+        log.info("Received send many async via sqs template request, queueUrl: {}, count: {}", queueUrl, testMessages.size());
+        long start = System.nanoTime();
+        int batchCount = (testMessages.size() + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE;
+        return InFlightWindow.runAsync(batchCount, batch -> sendManyBatch(queueUrl, testMessages, batch), InFlightWindow.maxInFlight(maxInFlight, this.maxInFlight))
+                .thenApply(results -> logSendMany(queueUrl, BatchResult.of(testMessages.size(), batchCount, start, results.stream().flatMap(List::stream).toList())));
+    }
+
+    /**
+     * Sends one chunk of at most ten messages through the template, which converts the payloads with its configured
+     * converter. A partially failed batch surfaces as SendBatchOperationFailedException carrying the batch result.
+     */
+    private CompletableFuture<List<BatchFailure>> sendManyBatch(String queueUrl, List<TestMessage> testMessages, int batch) {
+
+        int first = batch * MAX_BATCH_SIZE;
+        int last = Math.min(first + MAX_BATCH_SIZE, testMessages.size());
+        List<org.springframework.messaging.Message<TestMessage>> messages = new ArrayList<>(last - first);
+        // Failures are reported by message index, the template only hands back the messages with their random header id
+        Map<UUID, Integer> indexes = new HashMap<>(last - first);
+        for (int i = first; i < last; i++) {
+            org.springframework.messaging.Message<TestMessage> message = MessageBuilder.withPayload(testMessages.get(i)).build();
             messages.add(message);
+            indexes.put(message.getHeaders().getId(), i);
         }
-        SendResult<TestMessage> response = sqsTemplate.sendMany("test-queue", messages);
-        log.info("Send message via sns template, testMessage: {} endpoint: {}", testMessage, response.endpoint());
+        return sqsTemplate.sendManyAsync(queueUrl, messages)
+                .handle((result, throwable) -> {
+                    if (throwable == null) {
+                        return toBatchFailures(result, indexes);
+                    }
+                    Throwable cause = BatchFailure.cause(throwable);
+                    if (cause instanceof SendBatchOperationFailedException failedException) {
+                        return toBatchFailures(failedException.getSendBatchResult(), indexes);
+                    }
+                    return toBatchFailures(first, last, cause);
+                });
+    }
 
-    }*/
+    private BatchResult logSendMany(String queueUrl, BatchResult batchResult) {
+        log.info("Send many via sqs template, queueUrl: {}, successful: {}, failed: {}, durationMs: {}, perSecond: {}",
+                queueUrl, batchResult.getSuccessful(), batchResult.getFailed(), batchResult.getDurationMs(), batchResult.getPerSecond());
+        return batchResult;
+    }
 
     public int sendMessageAttributes(String queueUrl, TestMessage testMessage) throws JsonProcessingException {
 
         log.info("Received send message with attributes request, testMessage: {}", testMessage);
-        Map<String, MessageAttributeValue> attributes = new HashMap<>();
-        String jsonString = objectMapper.writeValueAsString(testMessage);
-        attributes.put("my_attribute_name_1", MessageAttributeValue.builder().dataType("String").stringValue("my_attribute_value_1").build());
-        attributes.put("my_attribute_name_2", MessageAttributeValue.builder().dataType("String").stringValue("my_attribute_value_2").build());
-        SendMessageResponse response = sqsClient.sendMessage(SendMessageRequest.builder().queueUrl(queueUrl).messageBody(jsonString).messageAttributes(attributes).build());
+        String jsonString = testMessageCodec.encode(testMessage);
+        SendMessageRequest request = requestTemplates.sendMessageAttributes(queueUrl, jsonString);
+        SendMessageResponse response = sqsClient.sendMessage(request);
         if (response.sdkHttpResponse().isSuccessful()) {
-            log.info("Send message, queueUrl: {}, count: {}", queueUrl, attributes.size());
+            log.info("Send message, queueUrl: {}, count: {}", queueUrl, request.messageAttributes().size());
         } else {
             log.error("Could not send message with attributes, queueUrl: {}", queueUrl);
         }
-        return attributes.size();
+        return request.messageAttributes().size();
     }
 
     public List<TestMessage> receiveMessages(String queueUrl, int maxMessages, int maxWaitTime) throws JsonProcessingException {
@@ -208,7 +338,7 @@ public class SQSService {
             messages = response.messages();
 
             for (Message message : messages) {
-                TestMessage testMessage = objectMapper.readValue(message.body(), TestMessage.class);
+                TestMessage testMessage = testMessageCodec.decode(message.body());
                 testMessage.setReceiptHandle(message.receiptHandle());
                 testMessages.add(testMessage);
             }
@@ -220,6 +350,25 @@ public class SQSService {
         return testMessages;
     }
 
+    public CompletableFuture<List<TestMessage>> receiveMessagesAsync(String queueUrl, int maxMessages, int maxWaitTime) {
+
+        return sqsAsyncClient.receiveMessage(ReceiveMessageRequest.builder().queueUrl(queueUrl).maxNumberOfMessages(maxMessages).waitTimeSeconds(maxWaitTime).build())
+                .thenApply(response -> {
+                    if (!response.sdkHttpResponse().isSuccessful()) {
+                        log.error("Could not receive messages async, queueUrl: {}", queueUrl);
+                        return List.of();
+                    }
+                    List<TestMessage> testMessages = new ArrayList<>(response.messages().size());
+                    for (Message message : response.messages()) {
+                        TestMessage testMessage = fromJson(message.body());
+                        testMessage.setReceiptHandle(message.receiptHandle());
+                        testMessages.add(testMessage);
+                    }
+                    log.info("Receive messages async, queueUrl: {}, size: {}", queueUrl, testMessages.size());
+                    return testMessages;
+                });
+    }
+
     public void deleteMessage(String queueName, String receiptHandle) {
 
         log.info("Received delete message request, queueName: {} receiptHandle: {}", queueName, receiptHandle);
@@ -230,16 +379,29 @@ public class SQSService {
         log.info("Message deleted, queueUrl: {}, receiptHandle: {}, httpStatus: {}", queueUrl, receiptHandle, response.sdkHttpResponse().statusCode());
     }
 
-    public void deleteMessageBatch(String queueName, String receiptHandle1, String receiptHandle2) {
+    public CompletableFuture<Void> deleteMessageAsync(String queueName, String receiptHandle) {
+
+        String queueUrl = getQueueUrl(queueName);
+        return sqsAsyncClient.deleteMessage(DeleteMessageRequest.builder().queueUrl(queueUrl).receiptHandle(receiptHandle).build())
+                .thenAccept(response -> log.info("Message deleted async, queueUrl: {}, httpStatus: {}", queueUrl, response.sdkHttpResponse().statusCode()));
+    }
 
-        log.info("Received delete message request, queueName: {}", queueName);
+    public BatchResult deleteMessageBatch(String queueName, List<String> receiptHandles, Integer maxInFlight) {
+
+        log.info("Received delete message batch request, queueName: {}, count: {}", queueName, receiptHandles.size());
 
         String queueUrl = getQueueUrl(queueName);
-        DeleteMessageBatchRequestEntry requestEntry1 = DeleteMessageBatchRequestEntry.builder().receiptHandle(receiptHandle1).build();
-        DeleteMessageBatchRequestEntry requestEntry2 = DeleteMessageBatchRequestEntry.builder().receiptHandle(receiptHandle2).build();
-        DeleteMessageBatchResponse response = sqsClient.deleteMessageBatch(DeleteMessageBatchRequest.builder().queueUrl(queueUrl).entries(requestEntry1, requestEntry2).build());
+        BatchResult batchResult = runBatches(receiptHandles.size(), maxInFlight, (first, last) -> {
+            List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(last - first);
+            for (int i = first; i < last; i++) {
+                entries.add(DeleteMessageBatchRequestEntry.builder().id(String.valueOf(i)).receiptHandle(receiptHandles.get(i)).build());
+            }
+            return sqsAsyncClient.deleteMessageBatch(DeleteMessageBatchRequest.builder().queueUrl(queueUrl).entries(entries).build())
+                    .thenApply(DeleteMessageBatchResponse::failed);
+        });
 
-        log.info("Message deleted, queueUrl: {}, httpStatus: {}", queueUrl, response.sdkHttpResponse().statusCode());
+        log.info("Messages deleted, queueUrl: {}, successful: {}, failed: {}, durationMs: {}", queueUrl, batchResult.getSuccessful(), batchResult.getFailed(), batchResult.getDurationMs());
+        return batchResult;
     }
 
     public void deleteQueue(String queueName) {
@@ -248,6 +410,7 @@ public class SQSService {
 
         String queueUrl = getQueueUrl(queueName);
         DeleteQueueResponse response = sqsClient.deleteQueue(DeleteQueueRequest.builder().queueUrl(queueUrl).build());
+        queueUrlCache.invalidate(queueName);
 
         log.info("Queue deleted, queueUrl: {}, httpStatus: {}", queueUrl, response.sdkHttpResponse().statusCode());
     }
@@ -258,7 +421,63 @@ public class SQSService {
 
         String queueUrl = getQueueUrl("test-queue");
         DeleteQueueResponse response = sqsClient.deleteQueue(DeleteQueueRequest.builder().queueUrl(queueUrl).build());
+        queueUrlCache.invalidate("test-queue");
 
         log.info("Cleanup, httpStatus: {}", response.sdkHttpResponse().statusCode());
     }
+
+    public CacheStats queueUrlCacheStats() {
+        return queueUrlCache.stats();
+    }
+
+    /**
+     * Splits the entries 0..count-1 into batches of at most ten entries and runs the batch calls with a bounded
+     * number of calls in flight. A batch call receives the first (inclusive) and last (exclusive) entry index and
+     * returns the failed entries, whose ids are the entry indexes.
+     */
+    private BatchResult runBatches(int count, Integer maxInFlight, BiFunction<Integer, Integer, CompletableFuture<List<BatchResultErrorEntry>>> batchCall) {
+
+        long start = System.nanoTime();
+        int batchCount = (count + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE;
+        List<List<BatchFailure>> results = InFlightWindow.run(batchCount, batch -> {
+            int first = batch * MAX_BATCH_SIZE;
+            int last = Math.min(first + MAX_BATCH_SIZE, count);
+            return CompletableFuture.completedFuture(batch)
+                    .thenCompose(b -> batchCall.apply(first, last))
+                    .handle((failed, throwable) -> throwable == null ? failed.stream().map(BatchFailure::of).toList() : toBatchFailures(first, last, throwable));
+        }, InFlightWindow.maxInFlight(maxInFlight, this.maxInFlight));
+        return BatchResult.of(count, batchCount, start, results.stream().flatMap(List::stream).toList());
+    }
+
+    private String toJson(TestMessage testMessage) {
+        try {
+            return testMessageCodec.encode(testMessage);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TestMessage fromJson(String body) {
+        try {
+            return testMessageCodec.decode(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<BatchFailure> toBatchFailures(SendResult.Batch<?> batchResult, Map<UUID, Integer> indexes) {
+        return batchResult.failed().stream()
+                .map(f -> BatchFailure.builder()
+                        .id(String.valueOf(indexes.get(f.message().getHeaders().getId())))
+                        .code(String.valueOf(f.additionalInformation().get("code")))
+                        .message(f.errorMessage())
+                        .senderFault(Boolean.TRUE.equals(f.additionalInformation().get("senderFault")))
+                        .build())
+                .toList();
+    }
+
+    private static List<BatchFailure> toBatchFailures(int first, int last, Throwable throwable) {
+        log.error("Batch failed, first: {}, last: {}, error: {}", first, last - 1, BatchFailure.cause(throwable).getMessage());
+        return BatchFailure.range(first, last, throwable);
+    }
 }
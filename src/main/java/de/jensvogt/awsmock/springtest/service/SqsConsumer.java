@@ -0,0 +1,236 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import de.jensvogt.awsmock.springtest.codec.JsonCodec;
+import de.jensvogt.awsmock.springtest.dto.ConsumerStatus;
+import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Long-polling consumer for a single queue. Pollers run on virtual threads and hand the messages to a bounded handler
+ * pool, whose threads are virtual or platform threads depending on the thread factory. When the handler queue is full
+ * the poller runs the handler itself, which throttles polling. Processed messages are acknowledged through a buffer,
+ * which is flushed as DeleteMessageBatch when it is full or when the flush interval has elapsed.
+ */
+@Slf4j
+class SqsConsumer {
+
+    private static final int MAX_MESSAGES = 10;
+
+    private final SqsClient sqsClient;
+    private final JsonCodec<TestMessage> testMessageCodec;
+    private final String queueUrl;
+    private final int pollerCount;
+    private final int handlerThreads;
+    private final int waitTimeSeconds;
+    private final int ackBatchSize;
+
+    private final List<Thread> pollers = new ArrayList<>();
+    private final ThreadPoolExecutor handlerExecutor;
+    private final ScheduledExecutorService ackFlusher;
+    private final List<String> pendingAcks = new ArrayList<>();
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
+
+    private final LongAdder receiveRequests = new LongAdder();
+    private final LongAdder emptyReceives = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder handlerErrors = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder deleteFailures = new LongAdder();
+
+    private volatile boolean running;
+    private long startNanos;
+    private long stopNanos;
+
+    SqsConsumer(SqsClient sqsClient, JsonCodec<TestMessage> testMessageCodec, String queueUrl, int pollerCount, int handlerThreads, int handlerQueueSize,
+                int waitTimeSeconds, int ackBatchSize, long ackFlushIntervalMs, ThreadFactory handlerThreadFactory) {
+        this.sqsClient = sqsClient;
+        this.testMessageCodec = testMessageCodec;
+        this.queueUrl = queueUrl;
+        this.pollerCount = pollerCount;
+        this.handlerThreads = handlerThreads;
+        this.waitTimeSeconds = waitTimeSeconds;
+        this.ackBatchSize = Math.min(Math.max(ackBatchSize, 1), MAX_MESSAGES);
+        this.handlerExecutor = new ThreadPoolExecutor(handlerThreads, handlerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(handlerQueueSize), handlerThreadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.ackFlusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("sqs-ack-flusher").daemon().factory());
+        this.ackFlusher.scheduleWithFixedDelay(this::flushAcknowledgements, ackFlushIntervalMs, ackFlushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    void start() {
+        lifecycleLock.lock();
+        try {
+            running = true;
+            startNanos = System.nanoTime();
+            for (int i = 0; i < pollerCount; i++) {
+                pollers.add(Thread.ofVirtual().name("sqs-poller-" + i).start(this::poll));
+            }
+            log.info("Consumer started, queueUrl: {}, pollers: {}, handlerThreads: {}", queueUrl, pollerCount, handlerThreads);
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Joins the pollers and handlers and flushes the pending acknowledgements.
+     */
+    void stop() {
+        lifecycleLock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            pollers.forEach(Thread::interrupt);
+            for (Thread poller : pollers) {
+                try {
+                    poller.join(TimeUnit.SECONDS.toMillis(waitTimeSeconds + 1L));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            handlerExecutor.shutdown();
+            try {
+                if (!handlerExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    log.warn("Handlers did not finish in time, queueUrl: {}", queueUrl);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ackFlusher.shutdown();
+            flushAcknowledgements();
+            stopNanos = System.nanoTime();
+            log.info("Consumer stopped, queueUrl: {}, processed: {}, deleted: {}", queueUrl, processed.sum(), deleted.sum());
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    ConsumerStatus status() {
+        long uptimeNanos = Math.max((running ? System.nanoTime() : stopNanos) - startNanos, 1);
+        int pending;
+        synchronized (pendingAcks) {
+            pending = pendingAcks.size();
+        }
+        return ConsumerStatus.builder()
+                .queueUrl(queueUrl)
+                .running(running)
+                .pollers(pollerCount)
+                .handlerThreads(handlerThreads)
+                .receiveRequests(receiveRequests.sum())
+                .emptyReceives(emptyReceives.sum())
+                .received(received.sum())
+                .processed(processed.sum())
+                .handlerErrors(handlerErrors.sum())
+                .deleted(deleted.sum())
+                .deleteFailures(deleteFailures.sum())
+                .pendingAcknowledgements(pending)
+                .uptimeMs(uptimeNanos / 1_000_000)
+                .perSecond(processed.sum() * 1e9 / uptimeNanos)
+                .build();
+    }
+
+    private void poll() {
+
+        ReceiveMessageRequest request = ReceiveMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .maxNumberOfMessages(MAX_MESSAGES)
+                .waitTimeSeconds(waitTimeSeconds)
+                .build();
+        while (running) {
+            try {
+                ReceiveMessageResponse response = sqsClient.receiveMessage(request);
+                receiveRequests.increment();
+                if (!response.hasMessages() || response.messages().isEmpty()) {
+                    emptyReceives.increment();
+                    continue;
+                }
+                received.add(response.messages().size());
+                for (Message message : response.messages()) {
+                    handlerExecutor.execute(() -> handle(message));
+                }
+            } catch (SdkException ex) {
+                if (!running) {
+                    return;
+                }
+                log.error("Could not receive messages, queueUrl: {}, error: {}", queueUrl, ex.getMessage());
+                pause();
+            }
+        }
+    }
+
+    private void handle(Message message) {
+        try {
+            testMessageCodec.decode(message.body());
+            processed.increment();
+            acknowledge(message.receiptHandle());
+        } catch (Exception ex) {
+            handlerErrors.increment();
+            log.error("Could not handle message, queueUrl: {}, messageId: {}, error: {}", queueUrl, message.messageId(), ex.getMessage());
+        }
+    }
+
+    private void acknowledge(String receiptHandle) {
+        List<String> batch = null;
+        synchronized (pendingAcks) {
+            pendingAcks.add(receiptHandle);
+            if (pendingAcks.size() >= ackBatchSize) {
+                batch = new ArrayList<>(pendingAcks);
+                pendingAcks.clear();
+            }
+        }
+        if (batch != null) {
+            deleteBatch(batch);
+        }
+    }
+
+    private void flushAcknowledgements() {
+        List<String> batch;
+        synchronized (pendingAcks) {
+            if (pendingAcks.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pendingAcks);
+            pendingAcks.clear();
+        }
+        for (int i = 0; i < batch.size(); i += MAX_MESSAGES) {
+            deleteBatch(batch.subList(i, Math.min(i + MAX_MESSAGES, batch.size())));
+        }
+    }
+
+    private void deleteBatch(List<String> receiptHandles) {
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(receiptHandles.size());
+        for (int i = 0; i < receiptHandles.size(); i++) {
+            entries.add(DeleteMessageBatchRequestEntry.builder().id(String.valueOf(i)).receiptHandle(receiptHandles.get(i)).build());
+        }
+        try {
+            DeleteMessageBatchResponse response = sqsClient.deleteMessageBatch(DeleteMessageBatchRequest.builder().queueUrl(queueUrl).entries(entries).build());
+            deleted.add(response.successful().size());
+            deleteFailures.add(response.failed().size());
+        } catch (SdkException ex) {
+            deleteFailures.add(entries.size());
+            log.error("Could not delete message batch, queueUrl: {}, size: {}, error: {}", queueUrl, entries.size(), ex.getMessage());
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package de.jensvogt.awsmock.springtest.service;
+
+import de.jensvogt.awsmock.springtest.codec.JsonCodec;
+import de.jensvogt.awsmock.springtest.dto.ContainerStatus;
+import de.jensvogt.awsmock.springtest.dto.LatencySummary;
+import de.jensvogt.awsmock.springtest.dto.TestMessage;
+import io.awspring.cloud.sqs.listener.BackPressureMode;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
+import io.awspring.cloud.sqs.listener.SqsMessageListenerContainer;
+import io.awspring.cloud.sqs.listener.acknowledgement.AcknowledgementResultCallback;
+import io.awspring.cloud.sqs.listener.acknowledgement.handler.AcknowledgementMode;
+import io.awspring.cloud.sqs.support.converter.SqsMessagingMessageConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.messaging.Message;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spring Cloud AWS listener container for a single queue. The container polls, applies back-pressure and acknowledges
+ * in batches itself, so its throughput can be compared with the hand-rolled {@link SqsConsumer} under the same load.
+ * Payloads are passed on as raw strings and decoded with the same codec as in the hand-rolled path.
+ */
+@Slf4j
+class SqsContainerConsumer {
+
+    private final JsonCodec<TestMessage> testMessageCodec;
+    private final String queueUrl;
+    private final int maxConcurrentMessages;
+    private final int maxMessagesPerPoll;
+    private final long pollTimeoutSeconds;
+    private final BackPressureMode backPressureMode;
+    private final long acknowledgementIntervalMs;
+    private final int acknowledgementThreshold;
+    private final SqsMessageListenerContainer<String> container;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder handlerErrors = new LongAdder();
+    private final LongAdder acknowledged = new LongAdder();
+    private final LongAdder acknowledgementFailures = new LongAdder();
+    private final Recorder processingTimeRecorder = new Recorder(3);
+    private final Recorder queueTimeRecorder = new Recorder(3);
+    private final Histogram processingTime = new Histogram(3);
+    private final Histogram queueTime = new Histogram(3);
+    private Histogram processingInterval;
+    private Histogram queueInterval;
+
+    private long startNanos;
+    private long stopNanos;
+    private volatile boolean stopped;
+
+    SqsContainerConsumer(SqsAsyncClient sqsAsyncClient, JsonCodec<TestMessage> testMessageCodec, String queueUrl, int maxConcurrentMessages,
+                         int maxMessagesPerPoll, long pollTimeoutSeconds, BackPressureMode backPressureMode, long acknowledgementIntervalMs,
+                         int acknowledgementThreshold) {
+        this.testMessageCodec = testMessageCodec;
+        this.queueUrl = queueUrl;
+        this.maxConcurrentMessages = maxConcurrentMessages;
+        this.maxMessagesPerPoll = Math.min(maxMessagesPerPoll, maxConcurrentMessages);
+        this.pollTimeoutSeconds = pollTimeoutSeconds;
+        this.backPressureMode = backPressureMode;
+        this.acknowledgementIntervalMs = acknowledgementIntervalMs;
+        this.acknowledgementThreshold = acknowledgementThreshold;
+
+        // Without a payload type the converter keeps the body as string, the codec does the deserialization
+        SqsMessagingMessageConverter converter = new SqsMessagingMessageConverter();
+        converter.setPayloadTypeMapper(message -> null);
+
+        this.container = SqsMessageListenerContainer.<String>builder()
+                .id("sqs-container-" + queueUrl.substring(queueUrl.lastIndexOf('/') + 1))
+                .sqsAsyncClient(sqsAsyncClient)
+                .queueNames(queueUrl)
+                .configure(options -> options
+                        .maxConcurrentMessages(maxConcurrentMessages)
+                        .maxMessagesPerPoll(this.maxMessagesPerPoll)
+                        .pollTimeout(Duration.ofSeconds(pollTimeoutSeconds))
+                        .listenerShutdownTimeout(Duration.ofSeconds(pollTimeoutSeconds + 1))
+                        .backPressureMode(backPressureMode)
+                        .acknowledgementMode(AcknowledgementMode.ON_SUCCESS)
+                        .acknowledgementInterval(Duration.ofMillis(acknowledgementIntervalMs))
+                        .acknowledgementThreshold(acknowledgementThreshold)
+                        .messageConverter(converter))
+                .messageListener(this::handle)
+                .acknowledgementResultCallback(new AcknowledgementCounter())
+                .build();
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        container.start();
+        log.info("Container started, queueUrl: {}, maxConcurrentMessages: {}, maxMessagesPerPoll: {}, backPressureMode: {}",
+                queueUrl, maxConcurrentMessages, maxMessagesPerPoll, backPressureMode);
+    }
+
+    /**
+     * Stopping waits for the in-flight messages and flushes the pending acknowledgements.
+     */
+    void stop() {
+        stopped = true;
+        if (!container.isRunning()) {
+            return;
+        }
+        container.stop();
+        stopNanos = System.nanoTime();
+        log.info("Container stopped, queueUrl: {}, processed: {}, acknowledged: {}", queueUrl, processed.sum(), acknowledged.sum());
+    }
+
+    boolean isRunning() {
+        return container.isRunning();
+    }
+
+    /**
+     * True once stop() has been called, a container which is still starting is not stopped.
+     */
+    boolean isStopped() {
+        return stopped;
+    }
+
+    synchronized ContainerStatus status() {
+        boolean running = container.isRunning();
+        long uptimeNanos = Math.max((running ? System.nanoTime() : stopNanos) - startNanos, 1);
+        processingInterval = processingTimeRecorder.getIntervalHistogram(processingInterval);
+        queueInterval = queueTimeRecorder.getIntervalHistogram(queueInterval);
+        processingTime.add(processingInterval);
+        queueTime.add(queueInterval);
+        return ContainerStatus.builder()
+                .queueUrl(queueUrl)
+                .running(running)
+                .maxConcurrentMessages(maxConcurrentMessages)
+                .maxMessagesPerPoll(maxMessagesPerPoll)
+                .pollTimeoutSeconds(pollTimeoutSeconds)
+                .backPressureMode(backPressureMode.name())
+                .acknowledgementIntervalMs(acknowledgementIntervalMs)
+                .acknowledgementThreshold(acknowledgementThreshold)
+                .received(received.sum())
+                .processed(processed.sum())
+                .handlerErrors(handlerErrors.sum())
+                .acknowledged(acknowledged.sum())
+                .acknowledgementFailures(acknowledgementFailures.sum())
+                .uptimeMs(uptimeNanos / 1_000_000)
+                .perSecond(processed.sum() * 1e9 / uptimeNanos)
+                .processingTime(LatencySummary.of(processingTime))
+                .queueTime(LatencySummary.of(queueTime))
+                .build();
+    }
+
+    /**
+     * Throwing hands the message back to the container, which then leaves it unacknowledged until the visibility
+     * timeout expires.
+     */
+    private void handle(Message<String> message) {
+        long start = System.nanoTime();
+        received.increment();
+        recordQueueTime(message);
+        try {
+            testMessageCodec.decode(message.getPayload());
+            processed.increment();
+        } catch (Exception ex) {
+            handlerErrors.increment();
+            log.error("Could not handle message, queueUrl: {}, messageId: {}, error: {}", queueUrl, message.getHeaders().getId(), ex.getMessage());
+            throw new IllegalStateException(ex);
+        } finally {
+            processingTimeRecorder.recordValue(Math.max((System.nanoTime() - start) / 1000, 0));
+        }
+    }
+
+    /**
+     * The sent timestamp has millisecond resolution only, which is enough for the time a message spent in the queue.
+     */
+    private void recordQueueTime(Message<String> message) {
+        Object sentTimestamp = message.getHeaders().get(SqsHeaders.MessageSystemAttributes.SQS_SENT_TIMESTAMP);
+        if (sentTimestamp != null) {
+            try {
+                long queueMillis = System.currentTimeMillis() - Long.parseLong(sentTimestamp.toString());
+                queueTimeRecorder.recordValue(Math.max(queueMillis, 0) * 1000);
+            } catch (NumberFormatException ex) {
+                log.debug("Invalid sent timestamp, queueUrl: {}, value: {}", queueUrl, sentTimestamp);
+            }
+        }
+    }
+
+    private class AcknowledgementCounter implements AcknowledgementResultCallback<String> {
+
+        @Override
+        public void onSuccess(Collection<Message<String>> messages) {
+            acknowledged.add(messages.size());
+        }
+
+        @Override
+        public void onFailure(Collection<Message<String>> messages, Throwable t) {
+            acknowledgementFailures.add(messages.size());
+            log.error("Could not acknowledge messages, queueUrl: {}, size: {}, error: {}", queueUrl, messages.size(), t.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.jensvogt.awsmock.springtest.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts DynamoDB items to plain JSON, without the type descriptors of the wire format, and back. Sets are written as
+ * arrays, so they come back as lists.
+ */
+public final class AttributeValueJson {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private AttributeValueJson() {
+    }
+
+    public static ObjectNode toJson(Map<String, AttributeValue> item) {
+        ObjectNode node = NODES.objectNode();
+        item.forEach((name, value) -> node.set(name, toJson(value)));
+        return node;
+    }
+
+    public static JsonNode toJson(AttributeValue value) {
+        return switch (value.type()) {
+            case S -> NODES.textNode(value.s());
+            case N -> NODES.numberNode(new BigDecimal(value.n()));
+            case B -> NODES.binaryNode(value.b().asByteArray());
+            case BOOL -> NODES.booleanNode(value.bool());
+            case NUL -> NODES.nullNode();
+            case M -> toJson(value.m());
+            case L -> {
+                ArrayNode array = NODES.arrayNode(value.l().size());
+                value.l().forEach(element -> array.add(toJson(element)));
+                yield array;
+            }
+            case SS -> {
+                ArrayNode array = NODES.arrayNode(value.ss().size());
+                value.ss().forEach(array::add);
+                yield array;
+            }
+            case NS -> {
+                ArrayNode array = NODES.arrayNode(value.ns().size());
+                value.ns().forEach(n -> array.add(new BigDecimal(n)));
+                yield array;
+            }
+            case BS -> {
+                ArrayNode array = NODES.arrayNode(value.bs().size());
+                value.bs().stream().map(SdkBytes::asByteArray).forEach(array::add);
+                yield array;
+            }
+            case UNKNOWN_TO_SDK_VERSION -> NODES.nullNode();
+        };
+    }
+
+    public static Map<String, AttributeValue> fromJson(Map<String, JsonNode> item) {
+        Map<String, AttributeValue> values = new HashMap<>(item.size() * 2);
+        item.forEach((name, value) -> values.put(name, fromJson(value)));
+        return values;
+    }
+
+    public static AttributeValue fromJson(JsonNode node) {
+        return switch (node.getNodeType()) {
+            case STRING -> AttributeValue.fromS(node.textValue());
+            case NUMBER -> AttributeValue.fromN(node.decimalValue().toPlainString());
+            case BOOLEAN -> AttributeValue.fromBool(node.booleanValue());
+            case BINARY -> AttributeValue.fromB(SdkBytes.fromByteArray(((BinaryNode) node).binaryValue()));
+            case ARRAY -> {
+                List<AttributeValue> list = new ArrayList<>(node.size());
+                node.forEach(element -> list.add(fromJson(element)));
+                yield AttributeValue.fromL(list);
+            }
+            case OBJECT -> {
+                Map<String, AttributeValue> map = new HashMap<>(node.size() * 2);
+                node.fields().forEachRemaining(field -> map.put(field.getKey(), fromJson(field.getValue())));
+                yield AttributeValue.fromM(map);
+            }
+            case NULL, MISSING, POJO -> AttributeValue.fromNul(true);
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package de.jensvogt.awsmock.springtest.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Runs a number of asynchronous tasks while keeping at most a fixed number of them in flight.
+ */
+public final class InFlightWindow {
+
+    private InFlightWindow() {
+    }
+
+    /**
+     * Maximal number of tasks in flight: the requested number if given and positive, the default otherwise.
+     */
+    public static int maxInFlight(Integer requested, int defaultMaxInFlight) {
+        return requested != null && requested > 0 ? requested : defaultMaxInFlight;
+    }
+
+    /**
+     * Starts the tasks in index order, waiting for a free slot before each start, and joins all of them.
+     *
+     * @param taskCount   number of tasks
+     * @param task        creates the future for the task with the given index
+     * @param maxInFlight maximal number of uncompleted futures at any time
+     * @return task results in index order
+     */
+    public static <T> List<T> run(int taskCount, IntFunction<CompletableFuture<T>> task, int maxInFlight) {
+
+        Semaphore permits = new Semaphore(Math.max(maxInFlight, 1));
+        List<CompletableFuture<T>> futures = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            permits.acquireUninterruptibly();
+            CompletableFuture<T> future;
+            try {
+                future = task.apply(i);
+            } catch (RuntimeException ex) {
+                future = CompletableFuture.failedFuture(ex);
+            }
+            futures.add(future.whenComplete((result, throwable) -> permits.release()));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Non-blocking variant of {@link #run}. Every completed task starts the next one, so no thread waits for a free
+     * slot. Tasks that complete immediately are chained in a loop rather than recursively.
+     *
+     * @param taskCount   number of tasks
+     * @param task        creates the future for the task with the given index
+     * @param maxInFlight maximal number of uncompleted futures at any time
+     * @return future of the task results in index order, completing exceptionally if any task failed
+     */
+    public static <T> CompletableFuture<List<T>> runAsync(int taskCount, IntFunction<CompletableFuture<T>> task, int maxInFlight) {
+
+        List<CompletableFuture<T>> results = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            results.add(new CompletableFuture<>());
+        }
+        AtomicInteger next = new AtomicInteger();
+        for (int slot = 0; slot < Math.min(Math.max(maxInFlight, 1), taskCount); slot++) {
+            startNext(task, results, next);
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(v -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    private static <T> void startNext(IntFunction<CompletableFuture<T>> task, List<CompletableFuture<T>> results, AtomicInteger next) {
+
+        int index;
+        while ((index = next.getAndIncrement()) < results.size()) {
+            CompletableFuture<T> result = results.get(index);
+            CompletableFuture<T> future;
+            try {
+                future = task.apply(index);
+            } catch (RuntimeException ex) {
+                future = CompletableFuture.failedFuture(ex);
+            }
+            if (!future.isDone()) {
+                future.whenComplete((value, throwable) -> {
+                    complete(result, value, throwable);
+                    startNext(task, results, next);
+                });
+                return;
+            }
+            future.whenComplete((value, throwable) -> complete(result, value, throwable));
+        }
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, T value, Throwable throwable) {
+        if (throwable != null) {
+            result.completeExceptionally(throwable);
+        } else {
+            result.complete(value);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package de.jensvogt.awsmock.springtest.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.jensvogt.awsmock.springtest.dto.LatencySummary;
+import de.jensvogt.awsmock.springtest.dto.ListSummary;
+import org.HdrHistogram.Histogram;
+import software.amazon.awssdk.core.exception.SdkException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes the items of a paginated listing as NDJSON lines while the pages are fetched, so only one page is held in
+ * memory at a time. The stream is flushed after every page and closed with a summary line.
+ */
+public final class PaginatedListing {
+
+    private PaginatedListing() {
+    }
+
+    /**
+     * @param resource     name of the listed resource in the summary
+     * @param pages        SDK paginator, pages are fetched lazily by the iterator
+     * @param items        items of a page
+     * @param entry        converts an item to the object written as line
+     * @param limit        maximal number of items, null or 0 lists all
+     * @param objectMapper serializes the lines
+     * @param outputStream target stream
+     * @return summary, which is also written as last line
+     */
+    public static <P, T> ListSummary write(String resource, Iterable<P> pages, Function<P, ? extends Collection<T>> items, Function<T, ?> entry,
+                                           Integer limit, ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+
+        long maxItems = limit != null && limit > 0 ? limit : Long.MAX_VALUE;
+        Histogram pageTime = new Histogram(3);
+        long pageCount = 0;
+        long itemCount = 0;
+        String error = null;
+        long start = System.nanoTime();
+        try {
+            Iterator<P> iterator = pages.iterator();
+            while (itemCount < maxItems) {
+                long fetchStart = System.nanoTime();
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                P page = iterator.next();
+                pageTime.recordValue(Math.max((System.nanoTime() - fetchStart) / 1000, 0));
+                pageCount++;
+                for (T item : items.apply(page)) {
+                    if (itemCount == maxItems) {
+                        break;
+                    }
+                    outputStream.write(objectMapper.writeValueAsBytes(entry.apply(item)));
+                    outputStream.write('\n');
+                    itemCount++;
+                }
+                outputStream.flush();
+            }
+        } catch (SdkException ex) {
+            error = ex.getMessage();
+        }
+
+        long durationNanos = Math.max(System.nanoTime() - start, 1);
+        ListSummary summary = ListSummary.builder()
+                .resource(resource)
+                .pages(pageCount)
+                .items(itemCount)
+                .truncated(itemCount == maxItems)
+                .error(error)
+                .durationMs(durationNanos / 1_000_000)
+                .itemsPerSecond(itemCount * 1e9 / durationNanos)
+                .pageTime(LatencySummary.of(pageTime))
+                .build();
+        outputStream.write(objectMapper.writeValueAsBytes(Map.of("summary", summary)));
+        outputStream.write('\n');
+        outputStream.flush();
+        return summary;
+    }
+}